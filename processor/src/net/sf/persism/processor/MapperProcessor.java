@@ -0,0 +1,311 @@
+package net.sf.persism.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a net.sf.persism.GeneratedMapper for each class annotated with Table, NotTable or Mapped.
+ * <p>
+ * Properties are discovered with the same rules Persism uses at runtime: public getters (get/is) and setters,
+ * annotations from the getter, setter or field, properties with NotColumn or without a setter are skipped.
+ * The generated mapper lets Persism skip reflection when it first sees the class and when it reads and writes
+ * properties.
+ */
+@SupportedAnnotationTypes({MapperProcessor.TABLE, MapperProcessor.NOT_TABLE, MapperProcessor.MAPPED})
+public final class MapperProcessor extends AbstractProcessor {
+
+    static final String TABLE = "net.sf.persism.annotations.Table";
+    static final String NOT_TABLE = "net.sf.persism.annotations.NotTable";
+    static final String MAPPED = "net.sf.persism.annotations.Mapped";
+
+    private static final String COLUMN = "net.sf.persism.annotations.Column";
+    private static final String NOT_COLUMN = "net.sf.persism.annotations.NotColumn";
+
+    static final String SUFFIX = "_PersismMapper";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+                if (generated.add(name)) {
+                    generate(type);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE) ||
+                type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "persism: no mapper generated for abstract, private or inner class " + type, type);
+            return;
+        }
+
+        if (!hasDefaultConstructor(type)) {
+            // Persism creates these with their constructor (records, immutable classes) - see MetaData.determineConstructorInfo
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "persism: no mapper generated for class without a default constructor " + type, type);
+            return;
+        }
+
+        List<Property> properties = determineProperties(type);
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String mapperName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + SUFFIX;
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? mapperName : packageName + "." + mapperName, type);
+            try (Writer out = file.openWriter()) {
+                out.write(source(packageName, mapperName, typeName, properties));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "persism: could not generate " + mapperName + " " + e.getMessage(), type);
+        }
+    }
+
+    private List<Property> determineProperties(TypeElement type) {
+        Map<String, Property> properties = new TreeMap<>();
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        for (ExecutableElement method : methods) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+
+            if (methodName.startsWith("set") && method.getParameters().size() == 1) {
+                Property property = property(properties, methodName.substring(3));
+                property.setters.add(method);
+                property.addAnnotations(method);
+            }
+
+            boolean getter = methodName.startsWith("get") && !"getClass".equalsIgnoreCase(methodName) || methodName.startsWith("is");
+            if (getter && method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+                Property property = property(properties, methodName.substring(methodName.startsWith("is") ? 2 : 3));
+                property.getter = methodName;
+                property.getterType = method.getReturnType();
+                property.addAnnotations(method);
+            }
+        }
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Property property = properties.get(field.getSimpleName().toString().toLowerCase());
+            if (property != null) {
+                property.addAnnotations(field);
+            }
+        }
+
+        List<Property> result = new ArrayList<>(properties.size());
+        for (Property property : properties.values()) {
+            if (property.notColumn || property.setters.isEmpty()) {
+                continue;
+            }
+            // with overloaded setters prefer the one matching the getter type
+            ExecutableElement setter = property.setters.get(0);
+            for (ExecutableElement method : property.setters) {
+                if (property.getterType != null && sameType(property.getterType, method.getParameters().get(0).asType())) {
+                    setter = method;
+                }
+            }
+            property.setter = setter.getSimpleName().toString();
+            property.setterType = setter.getParameters().get(0).asType();
+            result.add(property);
+        }
+        return result;
+    }
+
+    private Property property(Map<String, Property> properties, String name) {
+        String propertyName = name.toLowerCase();
+        Property property = properties.get(propertyName);
+        if (property == null) {
+            property = new Property(propertyName);
+            properties.put(propertyName, property);
+        }
+        return property;
+    }
+
+    private boolean sameType(TypeMirror t1, TypeMirror t2) {
+        return processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(t1), processingEnv.getTypeUtils().erasure(t2));
+    }
+
+    private boolean hasDefaultConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String source(String packageName, String mapperName, String typeName, List<Property> properties) {
+        StringBuilder sb = new StringBuilder(2048);
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import net.sf.persism.PersismException;\n");
+        sb.append("import net.sf.persism.annotations.Column;\n\n");
+        sb.append("/**\n * Generated by persism-processor for ").append(typeName).append(". Do not edit.\n */\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(mapperName).append(" implements net.sf.persism.GeneratedMapper<").append(typeName).append("> {\n\n");
+
+        sb.append("    private static final String[] NAMES = {");
+        String sep = "";
+        for (Property property : properties) {
+            sb.append(sep).append('"').append(property.name).append('"');
+            sep = ", ";
+        }
+        sb.append("};\n\n");
+
+        sb.append("    private static final Class<?>[] TYPES = {");
+        sep = "";
+        for (Property property : properties) {
+            sb.append(sep).append(classLiteral(property.type()));
+            sep = ", ";
+        }
+        sb.append("};\n\n");
+
+        sb.append("    @Override\n    public ").append(typeName).append(" newInstance() {\n");
+        sb.append("        return new ").append(typeName).append("();\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n    public String[] propertyNames() {\n        return NAMES.clone();\n    }\n\n");
+        sb.append("    @Override\n    public Class<?>[] propertyTypes() {\n        return TYPES.clone();\n    }\n\n");
+
+        sb.append("    @Override\n    public Column[] columns() {\n        return new Column[]{");
+        sep = "";
+        for (Property property : properties) {
+            sb.append(sep);
+            if (property.column == null) {
+                sb.append("null");
+            } else {
+                sb.append("new ColumnValues(\"").append(property.column.get("name").replace("\\", "\\\\").replace("\"", "\\\"")).append("\", ")
+                        .append(property.column.get("autoIncrement")).append(", ")
+                        .append(property.column.get("primary")).append(", ")
+                        .append(property.column.get("hasDefault")).append(")");
+            }
+            sep = ", ";
+        }
+        sb.append("};\n    }\n\n");
+
+        sb.append("    @Override\n    public Object get(").append(typeName).append(" object, int property) {\n");
+        sb.append("        switch (property) {\n");
+        for (int j = 0; j < properties.size(); j++) {
+            Property property = properties.get(j);
+            sb.append("            case ").append(j).append(":\n");
+            if (property.getter != null) {
+                sb.append("                return object.").append(property.getter).append("();\n");
+            } else {
+                sb.append("                throw new PersismException(\"No getter for property ").append(property.name).append("\");\n");
+            }
+        }
+        sb.append("            default:\n                throw new IndexOutOfBoundsException(\"property: \" + property);\n        }\n    }\n\n");
+
+        sb.append("    @Override\n    public void set(").append(typeName).append(" object, int property, Object value) {\n");
+        sb.append("        switch (property) {\n");
+        for (int j = 0; j < properties.size(); j++) {
+            Property property = properties.get(j);
+            sb.append("            case ").append(j).append(":\n");
+            sb.append("                object.").append(property.setter).append("(").append(cast(property.setterType)).append(");\n");
+            sb.append("                return;\n");
+        }
+        sb.append("            default:\n                throw new IndexOutOfBoundsException(\"property: \" + property);\n        }\n    }\n\n");
+
+        sb.append("    private static final class ColumnValues implements Column {\n");
+        sb.append("        private final String name;\n        private final boolean autoIncrement;\n        private final boolean primary;\n        private final boolean hasDefault;\n\n");
+        sb.append("        ColumnValues(String name, boolean autoIncrement, boolean primary, boolean hasDefault) {\n");
+        sb.append("            this.name = name;\n            this.autoIncrement = autoIncrement;\n            this.primary = primary;\n            this.hasDefault = hasDefault;\n        }\n\n");
+        sb.append("        @Override\n        public String name() {\n            return name;\n        }\n\n");
+        sb.append("        @Override\n        public boolean autoIncrement() {\n            return autoIncrement;\n        }\n\n");
+        sb.append("        @Override\n        public boolean primary() {\n            return primary;\n        }\n\n");
+        sb.append("        @Override\n        public boolean hasDefault() {\n            return hasDefault;\n        }\n\n");
+        sb.append("        @Override\n        public Class<? extends java.lang.annotation.Annotation> annotationType() {\n            return Column.class;\n        }\n    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private String classLiteral(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+    }
+
+    // Same leniency as Method.invoke for numbers - any Number can be passed to a numeric primitive setter.
+    private String cast(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "(Boolean) value";
+            case CHAR:
+                return "(Character) value";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "((Number) value)." + type.getKind().name().toLowerCase() + "Value()";
+            default:
+                return "(" + processingEnv.getTypeUtils().erasure(type) + ") value";
+        }
+    }
+
+    private final class Property {
+        final String name;
+        String getter;
+        TypeMirror getterType;
+        final List<ExecutableElement> setters = new ArrayList<>(1);
+        String setter;
+        TypeMirror setterType;
+        boolean notColumn;
+        Map<String, String> column;
+
+        Property(String name) {
+            this.name = name;
+        }
+
+        TypeMirror type() {
+            return getterType != null ? getterType : setterType;
+        }
+
+        void addAnnotations(Element element) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                String annotationName = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+                if (NOT_COLUMN.equals(annotationName)) {
+                    notColumn = true;
+                } else if (COLUMN.equals(annotationName)) {
+                    column = new HashMap<>(4);
+                    column.put("name", "");
+                    column.put("autoIncrement", "false");
+                    column.put("primary", "false");
+                    column.put("hasDefault", "false");
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+                        column.put(entry.getKey().getSimpleName().toString(), String.valueOf(entry.getValue().getValue()));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package net.sf.persism;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Builds the getter and setter accessors used by PropertyInfo and the constructor used by ConstructorInfo.
+ * <p>
+ * We try a LambdaMetafactory generated Function/BiConsumer first which performs like a direct call. If that
+ * fails (non-public classes, class loader visibility etc.) we fall back to a MethodHandle and finally to
+ * plain reflection with Method.invoke.
+ */
+final class Accessors {
+
+    private static final Log log = Log.getLogger(Accessors.class);
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private Accessors() {
+    }
+
+    static Function<Object, Object> getter(Method getter) {
+        // odd methods like getSomething(int) or void getSomething() are left to fail at invocation as before
+        MethodHandle handle = getter.getParameterCount() == 0 && getter.getReturnType() != void.class ? unreflect(getter) : null;
+        if (handle != null) {
+            if (isVisible(getter.getDeclaringClass()) && isVisible(getter.getReturnType())) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(lookup,
+                            "apply",
+                            MethodType.methodType(Function.class),
+                            getterType,
+                            handle,
+                            MethodType.methodType(box(getter.getReturnType()), getter.getDeclaringClass()));
+
+                    return (Function<Object, Object>) site.getTarget().invokeExact();
+                } catch (Throwable e) {
+                    log.debug("getter: LambdaMetafactory failed for " + getter + " using MethodHandle. " + e.getMessage());
+                }
+            }
+
+            MethodHandle generic = handle.asType(getterType);
+            return object -> {
+                try {
+                    return generic.invokeExact(object);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new PersismException(e.getMessage(), e);
+                }
+            };
+        }
+
+        return object -> {
+            try {
+                return getter.invoke(object);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        };
+    }
+
+    static BiConsumer<Object, Object> setter(Method setter) {
+        MethodHandle handle = setter.getParameterCount() == 1 ? unreflect(setter) : null;
+        if (handle != null) {
+            Class<?> parameterType = setter.getParameterTypes()[0];
+            if (isVisible(setter.getDeclaringClass()) && isVisible(parameterType)) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(lookup,
+                            "accept",
+                            MethodType.methodType(BiConsumer.class),
+                            setterType,
+                            handle,
+                            MethodType.methodType(void.class, setter.getDeclaringClass(), box(parameterType)));
+
+                    return widening(parameterType, (BiConsumer<Object, Object>) site.getTarget().invokeExact());
+                } catch (Throwable e) {
+                    log.debug("setter: LambdaMetafactory failed for " + setter + " using MethodHandle. " + e.getMessage());
+                }
+            }
+
+            // drop any return value from "fluent" setters
+            MethodHandle generic = handle.asType(handle.type().changeReturnType(void.class)).asType(setterType);
+            return widening(parameterType, (object, value) -> {
+                try {
+                    generic.invokeExact(object, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new PersismException(e.getMessage(), e);
+                }
+            });
+        }
+
+        return (object, value) -> {
+            try {
+                setter.invoke(object, value);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        };
+    }
+
+    static Function<Object[], Object> constructor(Constructor<?> constructor) {
+        MethodHandle handle = null;
+        try {
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            try {
+                constructor.setAccessible(true);
+                handle = lookup.unreflectConstructor(constructor);
+            } catch (RuntimeException | IllegalAccessException e1) {
+                log.debug("constructor: " + constructor + " falling back to reflection. " + e1.getMessage());
+            }
+        }
+
+        if (handle != null) {
+            MethodHandle generic = handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(MethodType.methodType(Object.class, Object[].class));
+            return arguments -> {
+                try {
+                    return generic.invokeExact(arguments);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new PersismException(e.getMessage(), e);
+                }
+            };
+        }
+
+        return arguments -> {
+            try {
+                return constructor.newInstance(arguments);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        };
+    }
+
+    // Method.invoke applies widening primitive conversions (an Integer can be passed to a long setter) so we do the same.
+    static BiConsumer<Object, Object> widening(Class<?> parameterType, BiConsumer<Object, Object> setter) {
+        if (!parameterType.isPrimitive() || parameterType == boolean.class) {
+            return setter;
+        }
+        Class<?> boxed = box(parameterType);
+        return (object, value) -> {
+            if (value != null && value.getClass() != boxed) {
+                value = widen(value, parameterType);
+            }
+            setter.accept(object, value);
+        };
+    }
+
+    private static Object widen(Object value, Class<?> primitive) {
+        Object number = value instanceof Character ? (int) (Character) value : value;
+        if (number instanceof Number && !(value instanceof Character && (primitive == byte.class || primitive == short.class))) {
+            // char widens to the same types as short
+            int rank = value instanceof Character ? 1 : rank(number.getClass());
+            int target = rank(box(primitive));
+            if (rank >= 0 && target > rank) {
+                Number n = (Number) number;
+                if (primitive == short.class) {
+                    return n.shortValue();
+                } else if (primitive == int.class) {
+                    return n.intValue();
+                } else if (primitive == long.class) {
+                    return n.longValue();
+                } else if (primitive == float.class) {
+                    return n.floatValue();
+                } else if (primitive == double.class) {
+                    return n.doubleValue();
+                }
+            }
+        }
+        throw new IllegalArgumentException("argument type mismatch");
+    }
+
+    // order of widening primitive conversions
+    private static int rank(Class<?> type) {
+        if (type == Byte.class) {
+            return 0;
+        } else if (type == Short.class) {
+            return 1;
+        } else if (type == Integer.class) {
+            return 2;
+        } else if (type == Long.class) {
+            return 3;
+        } else if (type == Float.class) {
+            return 4;
+        } else if (type == Double.class) {
+            return 5;
+        }
+        return -1;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public method declared on a non-public class for example
+            try {
+                method.setAccessible(true);
+                return lookup.unreflect(method);
+            } catch (RuntimeException | IllegalAccessException e1) {
+                log.debug("unreflect: " + method + " falling back to reflection. " + e1.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // The generated lambda class is defined with our class loader so it needs to see the types it casts to.
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, Accessors.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
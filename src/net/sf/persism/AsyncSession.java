@@ -0,0 +1,143 @@
+package net.sf.persism;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs Session operations asynchronously, each on its own connection from a DataSource so independent operations
+ * overlap instead of waiting on a single Connection. Every operation gets a new Session which is closed
+ * (returning the connection to the pool) when the operation completes.
+ * <p>
+ * By default operations run on virtual threads when the runtime supports them (Java 21 or later) or on a pool of
+ * daemon threads bounded to the number of processors times 4 otherwise. Close the AsyncSession to shut down
+ * the default executor.
+ * <pre>{@code
+ * AsyncSession async = new AsyncSession(dataSource);
+ * CompletableFuture<List<Customer>> customers = async.query(Customer.class, "SELECT * FROM Customers");
+ * CompletableFuture<List<Invoice>> invoices = async.query(Invoice.class, "SELECT * FROM Invoices");
+ * }</pre>
+ */
+public final class AsyncSession implements AutoCloseable {
+
+    private static final Log log = Log.getLogger(AsyncSession.class);
+
+    private final DataSource dataSource;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Run operations on virtual threads or a bounded pool.
+     *
+     * @param dataSource source of the connections
+     */
+    public AsyncSession(DataSource dataSource) {
+        this(dataSource, defaultExecutor(), true);
+    }
+
+    /**
+     * @param dataSource source of the connections
+     * @param executor   runs the operations. It is not shut down by close.
+     */
+    public AsyncSession(DataSource dataSource, ExecutorService executor) {
+        this(dataSource, executor, false);
+    }
+
+    private AsyncSession(DataSource dataSource, ExecutorService executor, boolean ownsExecutor) {
+        this.dataSource = dataSource;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @see Session#query(Class, String, Object...)
+     */
+    public <T> CompletableFuture<List<T>> query(Class<T> objectClass, String sql, Object... parameters) {
+        return submit(session -> session.query(objectClass, sql, parameters));
+    }
+
+    /**
+     * @see Session#fetch(Object)
+     */
+    public CompletableFuture<Boolean> fetch(Object object) {
+        return submit(session -> session.fetch(object));
+    }
+
+    /**
+     * @see Session#fetch(Class, String, Object...)
+     */
+    public <T> CompletableFuture<T> fetch(Class<T> objectClass, String sql, Object... parameters) {
+        return submit(session -> session.fetch(objectClass, sql, parameters));
+    }
+
+    /**
+     * @see Session#insert(Object)
+     */
+    public CompletableFuture<Integer> insert(Object object) {
+        return submit(session -> session.insert(object));
+    }
+
+    /**
+     * @see Session#update(Object)
+     */
+    public CompletableFuture<Integer> update(Object object) {
+        return submit(session -> session.update(object));
+    }
+
+    /**
+     * @see Session#delete(Object)
+     */
+    public CompletableFuture<Integer> delete(Object object) {
+        return submit(session -> session.delete(object));
+    }
+
+    /**
+     * Run any Session operations on one connection. Use this for several operations which should run together.
+     *
+     * @param operation receives a Session which is closed when the operation returns.
+     * @param <R>       Result type
+     * @return future completed with the result of the operation or exceptionally with its exception
+     */
+    public <R> CompletableFuture<R> submit(Function<Session, R> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Session session = new Session(dataSource.getConnection())) {
+                return operation.apply(session);
+            } catch (SQLException e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Shut down the default executor. Operations already submitted still complete.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor is looked up by reflection since we compile for Java 8
+    private static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.debug("Virtual threads not available - using a thread pool");
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "persism-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4, factory);
+    }
+}
@@ -0,0 +1,41 @@
+package net.sf.persism;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by Session insertAll when a batch fails. The failed objects are the ones which were not inserted -
+ * rows the driver reported as failed, rows it did not run after the failure and objects waiting in other batches.
+ * Objects after them in the Iterable were not attempted.
+ * <p>
+ * insertAll does not roll back. With auto commit off the rows reported as inserted are still in the transaction -
+ * commit to keep them or roll back (the inserted objects keep their generated keys and read state). With auto
+ * commit on, some drivers commit each row of the batch.
+ */
+public final class BatchInsertException extends PersismException {
+
+    private static final long serialVersionUID = -4261783526498305147L;
+
+    private final transient List<Object> failedObjects;
+    private final int insertedCount;
+
+    BatchInsertException(String message, Throwable cause, List<Object> failedObjects, int insertedCount) {
+        super(message, cause);
+        this.failedObjects = Collections.unmodifiableList(failedObjects);
+        this.insertedCount = insertedCount;
+    }
+
+    /**
+     * @return the objects which were not inserted
+     */
+    public List<Object> getFailedObjects() {
+        return failedObjects;
+    }
+
+    /**
+     * @return number of rows inserted by the earlier batches and by the failed batch before the failure
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+}
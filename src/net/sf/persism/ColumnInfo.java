@@ -29,6 +29,10 @@ final class ColumnInfo {
 
     int length; // for string to varchar length checking
 
+    // NUMERIC/DECIMAL digits - ParallelQuery only splits keys without a scale that fit a long
+    int precision;
+    int scale;
+
     @Override
     public String toString() {
         return "ColumnInfo{" +
@@ -40,6 +44,8 @@ final class ColumnInfo {
                 ", primary=" + primary +
                 ", hasDefault=" + hasDefault +
                 ", length=" + length +
+                ", precision=" + precision +
+                ", scale=" + scale +
                 '}';
     }
 }
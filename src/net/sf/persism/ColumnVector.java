@@ -0,0 +1,107 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Values of one result set column read into an array which grows as rows are read. Subclasses keep the values
+ * in primitive arrays so no wrapper objects are created per row. Null values are tracked in a bitmap which is
+ * only allocated when the first null is read.
+ */
+public abstract class ColumnVector {
+
+    int size;
+
+    // bit per row - null until a null value is read. Only grown by setNull so rows after the last null may be past it.
+    private long[] nulls;
+
+    ColumnVector() {
+    }
+
+    /**
+     * @return number of values
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return true if the value at index is null
+     */
+    public final boolean isNull(int index) {
+        checkIndex(index);
+        return nulls != null && index >>> 6 < nulls.length && (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return true if any value is null
+     */
+    public final boolean hasNulls() {
+        return nulls != null;
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return the value at index as an object or null. This boxes primitive values - use the typed getter instead.
+     */
+    public abstract Object getObject(int index);
+
+    // Reads the column of the current row and adds it
+    abstract void read(ResultSet rs, int column) throws SQLException;
+
+    // Typed reads used by ColumnarResult - primitive vectors override these to avoid boxing. Nulls read as 0.
+    int getIntValue(int index) {
+        return (int) getLongValue(index);
+    }
+
+    long getLongValue(int index) {
+        Object value = getObject(index);
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        throw new PersismException("Value is not a number: " + value.getClass().getName());
+    }
+
+    double getDoubleValue(int index) {
+        Object value = getObject(index);
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new PersismException("Value is not a number: " + value.getClass().getName());
+    }
+
+    String getStringValue(int index) {
+        Object value = getObject(index);
+        return value == null ? null : value.toString();
+    }
+
+    final void setNull(int index) {
+        if (nulls == null) {
+            nulls = new long[(capacity() >>> 6) + 1];
+        } else if (index >>> 6 >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, Math.max(nulls.length * 2, (index >>> 6) + 1));
+        }
+        nulls[index >>> 6] |= 1L << index;
+    }
+
+    abstract int capacity();
+
+    final void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + " size: " + size);
+        }
+    }
+
+    // grows capacity by half
+    static int grow(int capacity) {
+        return Math.max(capacity + (capacity >> 1), 16);
+    }
+}
@@ -0,0 +1,231 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Result of Session.queryColumnar held as one typed ColumnVector per result set column instead of one object per row.
+ * <ul>
+ * <li>TINYINT, SMALLINT and INTEGER columns are read into an IntVector</li>
+ * <li>BIGINT columns and NUMERIC/DECIMAL columns without a scale (up to 18 digits) are read into a LongVector</li>
+ * <li>FLOAT, REAL and DOUBLE columns are read into a DoubleVector</li>
+ * <li>text columns are read into a dictionary encoded StringVector</li>
+ * <li>anything else (including NUMERIC/DECIMAL with a scale to keep their precision) is read into an ObjectVector</li>
+ * </ul>
+ * Rows and columns are 0 based. The typed getters convert between numeric columns and read nulls as 0.
+ * Use Row to walk the rows without creating an object per row.
+ *
+ * @see Session#queryColumnar(String, Object...)
+ */
+public final class ColumnarResult {
+
+    private final String[] columnNames;
+    private final ColumnVector[] columns;
+    private int rowCount;
+
+    ColumnarResult(ResultSetMetaData rsmd, int capacity) throws SQLException {
+        int count = rsmd.getColumnCount();
+        columnNames = new String[count];
+        columns = new ColumnVector[count];
+        for (int j = 0; j < count; j++) {
+            columnNames[j] = rsmd.getColumnLabel(j + 1);
+            columns[j] = newVector(rsmd, j + 1, capacity);
+        }
+    }
+
+    private static ColumnVector newVector(ResultSetMetaData rsmd, int column, int capacity) throws SQLException {
+        Types columnType = Types.convert(rsmd.getColumnType(column));
+        if (columnType == null) {
+            return new ObjectVector(capacity, null);
+        }
+        switch (columnType) {
+            case ByteType:
+            case ShortType:
+            case IntegerType:
+                return new IntVector(capacity);
+
+            case LongType:
+                return new LongVector(capacity);
+
+            case BigDecimalType:
+                int precision = rsmd.getPrecision(column);
+                if (rsmd.getScale(column) == 0 && precision > 0 && precision <= 18) {
+                    return new LongVector(capacity);
+                }
+                return new ObjectVector(capacity, columnType);
+
+            case FloatType:
+            case DoubleType:
+                return new DoubleVector(capacity);
+
+            case StringType:
+            case ClobType:
+                return new StringVector(capacity);
+
+            default:
+                return new ObjectVector(capacity, columnType);
+        }
+    }
+
+    // Reads the current row of the result set
+    void read(ResultSet rs) throws SQLException {
+        for (int j = 0; j < columns.length; j++) {
+            columns[j].read(rs, j + 1);
+        }
+        rowCount++;
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @param column column index (0 based)
+     * @return column label from the result set
+     */
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    /**
+     * @param columnName column label - case insensitive
+     * @return column index (0 based)
+     * @throws PersismException if there is no column with the name
+     */
+    public int getColumnIndex(String columnName) {
+        for (int j = 0; j < columnNames.length; j++) {
+            if (columnNames[j].equalsIgnoreCase(columnName)) {
+                return j;
+            }
+        }
+        throw new PersismException("Column not found: " + columnName);
+    }
+
+    /**
+     * @param column column index (0 based)
+     * @return the vector holding the values of the column - cast it to its type for typed access
+     */
+    public ColumnVector getColumn(int column) {
+        return columns[column];
+    }
+
+    /**
+     * @param columnName column label - case insensitive
+     * @return the vector holding the values of the column
+     */
+    public ColumnVector getColumn(String columnName) {
+        return columns[getColumnIndex(columnName)];
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].isNull(row);
+    }
+
+    public int getInt(int row, int column) {
+        return columns[column].getIntValue(row);
+    }
+
+    public long getLong(int row, int column) {
+        return columns[column].getLongValue(row);
+    }
+
+    public double getDouble(int row, int column) {
+        return columns[column].getDoubleValue(row);
+    }
+
+    public String getString(int row, int column) {
+        return columns[column].getStringValue(row);
+    }
+
+    public Object getObject(int row, int column) {
+        return columns[column].getObject(row);
+    }
+
+    /**
+     * @return new Row positioned before the first row
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * View of one row of the result. The same Row is moved over the rows so no object is created per row.
+     * <pre>{@code
+     * ColumnarResult.Row row = result.row();
+     * while (row.next()) {
+     *     total += row.getDouble(2);
+     * }
+     * }</pre>
+     */
+    public final class Row {
+
+        private int index = -1;
+
+        private Row() {
+        }
+
+        /**
+         * Move to the next row.
+         *
+         * @return false if there are no more rows
+         */
+        public boolean next() {
+            if (index < rowCount) {
+                index++;
+            }
+            return index < rowCount;
+        }
+
+        /**
+         * @param row row index (0 based)
+         */
+        public void moveTo(int row) {
+            if (row < 0 || row >= rowCount) {
+                throw new IndexOutOfBoundsException("row: " + row + " row count: " + rowCount);
+            }
+            index = row;
+        }
+
+        /**
+         * @return index of the current row (0 based)
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isNull(int column) {
+            return columns[column].isNull(index);
+        }
+
+        public int getInt(int column) {
+            return columns[column].getIntValue(index);
+        }
+
+        public long getLong(int column) {
+            return columns[column].getLongValue(index);
+        }
+
+        public double getDouble(int column) {
+            return columns[column].getDoubleValue(index);
+        }
+
+        public String getString(int column) {
+            return columns[column].getStringValue(index);
+        }
+
+        public Object getObject(int column) {
+            return columns[column].getObject(index);
+        }
+    }
+}
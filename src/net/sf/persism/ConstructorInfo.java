@@ -0,0 +1,48 @@
+package net.sf.persism;
+
+import java.util.function.Function;
+
+/**
+ * Constructor used to create immutable data objects (records or classes without setters) from a row.
+ * Parameters are in constructor order. Properties mapped to a constructor parameter may not have a setter.
+ */
+final class ConstructorInfo {
+
+    final PropertyInfo[] parameters;
+    final Class<?>[] parameterTypes;
+
+    // default values for primitive parameters when the column is null
+    private final Object[] defaults;
+
+    // see Accessors
+    private final Function<Object[], Object> creator;
+
+    ConstructorInfo(PropertyInfo[] parameters, Class<?>[] parameterTypes, Function<Object[], Object> creator) {
+        this.parameters = parameters;
+        this.parameterTypes = parameterTypes;
+        this.creator = creator;
+
+        defaults = new Object[parameterTypes.length];
+        for (int j = 0; j < parameterTypes.length; j++) {
+            defaults[j] = Util.defaultValue(parameterTypes[j]);
+        }
+    }
+
+    int indexOf(PropertyInfo propertyInfo) {
+        for (int j = 0; j < parameters.length; j++) {
+            if (parameters[j] == propertyInfo) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    Object newInstance(Object[] arguments) {
+        for (int j = 0; j < arguments.length; j++) {
+            if (arguments[j] == null) {
+                arguments[j] = defaults[j];
+            }
+        }
+        return creator.apply(arguments);
+    }
+}
@@ -0,0 +1,22 @@
+package net.sf.persism;
+
+/**
+ * Converts a value read from the database to a property type or a property value to the type of its column.
+ * Register custom converters with Converters.register.
+ *
+ * @param <S> Source type
+ * @param <T> Target type
+ * @see Converters
+ */
+@FunctionalInterface
+public interface Converter<S, T> {
+
+    /**
+     * Convert the value.
+     *
+     * @param value value to convert - never null.
+     * @return the converted value.
+     * @throws PersismException if the value cannot be converted.
+     */
+    T convert(S value) throws PersismException;
+}
@@ -0,0 +1,462 @@
+package net.sf.persism;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the conversions Persism makes between the value types read from the database and the property
+ * types defined on the Data class - or the value types from the properties to the statement parameters.
+ * <p>
+ * The conversion for each source and target class pair is resolved once and cached so converting a value is a
+ * lookup followed by a direct call. You can register your own converters for types Persism does not know about
+ * (or to replace the default conversion for a pair):
+ * <pre>{@code
+ * Converters.register(BigDecimal.class, Money.class, Money::new);
+ * Converters.register(Money.class, BigDecimal.class, Money::getAmount);
+ * }</pre>
+ */
+public final class Converters {
+
+    private static final Log log = Log.getLogger(Converters.class);
+
+    // conversion used internally. Column name is for warnings and error messages.
+    interface Conversion {
+        Object convert(Object value, String columnName);
+    }
+
+    private static final Conversion none = (value, columnName) -> value;
+
+    // user registered conversions. Source class -> target class -> conversion
+    private static final Map<Class<?>, Map<Class<?>, Conversion>> registered = new ConcurrentHashMap<>(8);
+
+    // resolved conversions. Source class -> target class -> conversion
+    private static final Map<Class<?>, Map<Class<?>, Conversion>> resolved = new ConcurrentHashMap<>(32);
+
+    private Converters() {
+    }
+
+    /**
+     * Register a converter used when a value of the source type has to be converted to the target type.
+     * This replaces any converter previously registered for the same types.
+     *
+     * @param sourceType type of the value to convert
+     * @param targetType type to convert to
+     * @param converter  converter to use
+     * @param <S>        Source type
+     * @param <T>        Target type
+     */
+    public static <S, T> void register(Class<S> sourceType, Class<T> targetType, Converter<S, T> converter) {
+        Objects.requireNonNull(sourceType, "sourceType");
+        Objects.requireNonNull(targetType, "targetType");
+        Objects.requireNonNull(converter, "converter");
+
+        registered.computeIfAbsent(sourceType, k -> new ConcurrentHashMap<>(4)).
+                put(targetType, (value, columnName) -> converter.convert(sourceType.cast(value)));
+        resolved.clear();
+    }
+
+    /**
+     * Remove a converter registered for the source and target types. Persism reverts to its default conversion.
+     *
+     * @param sourceType type of the value to convert
+     * @param targetType type to convert to
+     */
+    public static void unregister(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, Conversion> conversions = registered.get(sourceType);
+        if (conversions != null) {
+            conversions.remove(targetType);
+            resolved.clear();
+        }
+    }
+
+    // Value of a class Persism does not know (a query parameter for example) converted with a converter registered
+    // from its class to a class Persism knows - or the value as is if there is none.
+    static Object toKnownType(Object value) {
+        Map<Class<?>, Conversion> conversions = registered.get(value.getClass());
+        if (conversions != null) {
+            for (Map.Entry<Class<?>, Conversion> entry : conversions.entrySet()) {
+                if (Types.getType(entry.getKey()) != null) {
+                    return entry.getValue().convert(value, null);
+                }
+            }
+        }
+        return value;
+    }
+
+    static Object convert(Object value, Class<?> targetType, String columnName) {
+        assert value != null;
+        return get(value.getClass(), targetType).convert(value, columnName);
+    }
+
+    static Conversion get(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, Conversion> conversions = resolved.get(sourceType);
+        if (conversions == null) {
+            conversions = resolved.computeIfAbsent(sourceType, k -> new ConcurrentHashMap<>(8));
+        }
+
+        Conversion conversion = conversions.get(targetType);
+        if (conversion == null) {
+            conversion = resolve(sourceType, targetType);
+            conversions.put(targetType, conversion);
+        }
+        return conversion;
+    }
+
+    private static Conversion resolve(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, Conversion> conversions = registered.get(sourceType);
+        if (conversions != null && conversions.containsKey(targetType)) {
+            return conversions.get(targetType);
+        }
+
+        Types source = Types.getType(sourceType);
+        if (source == null) {
+            return (value, columnName) -> {
+                log.warn("Conversion: Unknown Persism type " + value.getClass() + " - no conversion performed.");
+                return value;
+            };
+        }
+
+        // Classes we don't know about are treated as Object which has no conversions.
+        Types target = Types.getType(targetType);
+        if (target == null) {
+            target = Types.ObjectType;
+        }
+
+        switch (source) {
+
+            // TODO test out short and byte - JDBC tends to read single byte as short
+            // Might need byte to bool also upcasting can cause errors
+            case integerType:
+            case IntegerType:
+                switch (target) {
+                    case BooleanType:
+                    case booleanType:
+                        // int to bool
+                        return (value, columnName) -> (Integer) value != 0;
+
+                    case TimeType:
+                        // SQLite when a Time is defined VIA a convert from LocalTime via Time.valueOf (see getContactForTest)
+                        return (value, columnName) -> new Time(((Integer) value).longValue());
+
+                    case LocalTimeType:
+                        // SQLite for Time SQLite sees Long, for LocalTime it sees Integer
+                        return (value, columnName) -> new Time((Integer) value).toLocalTime();
+                }
+                break;
+
+            case longType:
+            case LongType:
+                switch (target) {
+                    case SQLDateType:
+                        return (value, columnName) -> new java.sql.Date((Long) value);
+
+                    case UtilDateType:
+                        return (value, columnName) -> new Date((Long) value);
+
+                    case TimestampType:
+                        return (value, columnName) -> new Timestamp((Long) value);
+
+                    case IntegerType:
+                    case integerType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is INT and column is LONG");
+                            return Math.toIntExact((Long) value);
+                        };
+
+                    case LocalDateType:
+                        // SQLite reads long as date.....
+                        return (value, columnName) -> DateTimes.toLocalDateTime((Long) value).toLocalDate();
+
+                    case LocalDateTimeType:
+                        return (value, columnName) -> DateTimes.toLocalDateTime((Long) value);
+
+                    case TimeType:
+                        // SQLite.... Again.....
+                        return (value, columnName) -> new Time((Long) value);
+                }
+                break;
+
+            case doubleType:
+            case DoubleType:
+                switch (target) {
+                    case BigDecimalType:
+                        // float or doubles to BigDecimal
+                        return (value, columnName) -> BigDecimal.valueOf((Double) value);
+
+                    case FloatType:
+                    case floatType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is FLOAT and column is DOUBLE");
+                            return ((Double) value).floatValue();
+                        };
+
+                    case IntegerType:
+                    case integerType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is INT and column is DOUBLE");
+                            return ((Double) value).intValue();
+                        };
+
+                    case LongType:
+                    case longType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Long and column is DOUBLE");
+                            return ((Double) value).longValue();
+                        };
+                }
+                break;
+
+            case BigDecimalType:
+                switch (target) {
+                    case FloatType:
+                    case floatType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Float and column is BigDecimal");
+                            return ((Number) value).floatValue();
+                        };
+
+                    case DoubleType:
+                    case doubleType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Double and column is BigDecimal");
+                            return ((Number) value).doubleValue();
+                        };
+
+                    case LongType:
+                    case longType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Long and column is BigDecimal");
+                            return ((Number) value).longValue();
+                        };
+
+                    case IntegerType:
+                    case integerType:
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Integer and column is BigDecimal");
+                            return ((Number) value).intValue();
+                        };
+
+                    case BooleanType:
+                    case booleanType:
+                        // BigDecimal to Boolean. Oracle (sigh) - Additional for a Char to Boolean as then (see TestOracle for links)
+                        return (value, columnName) -> {
+                            Session.warnNoDuplicates("Possible overflow column " + columnName + " - Property is Boolean and column is BigDecimal - seems a bit overkill?");
+                            return ((Number) value).intValue() == 1;
+                        };
+
+                    case StringType:
+                        return (value, columnName) -> value.toString();
+                }
+                break;
+
+            case StringType:
+                return resolveFromString(target, targetType);
+
+            case LocalDateType:
+                return (value, columnName) -> java.sql.Date.valueOf((LocalDate) value);
+
+            case LocalDateTimeType:
+                return (value, columnName) -> Timestamp.valueOf((LocalDateTime) value);
+
+            case LocalTimeType:
+                return (value, columnName) -> Time.valueOf((LocalTime) value);
+
+            case UtilDateType:
+            case SQLDateType:
+            case TimestampType:
+                switch (target) {
+                    case UtilDateType:
+                        return (value, columnName) -> new Date(((Date) value).getTime());
+
+                    case SQLDateType:
+                        return (value, columnName) -> new java.sql.Date(((Date) value).getTime());
+
+                    case TimestampType:
+                        return (value, columnName) -> new Timestamp(((Date) value).getTime());
+
+                    case LocalDateType:
+                        return (value, columnName) -> DateTimes.toLocalDateTime(((Date) value).getTime()).toLocalDate();
+
+                    case LocalDateTimeType:
+                        return (value, columnName) -> DateTimes.toLocalDateTime(((Date) value).getTime());
+
+                    case TimeType:
+                        // Oracle doesn't seem to have Time so we use Timestamp
+                        return (value, columnName) -> new Time(((Date) value).getTime());
+
+                    case LocalTimeType:
+                        // Oracle.... Sigh
+                        return (value, columnName) -> DateTimes.toLocalDateTime(((Date) value).getTime()).toLocalTime();
+                }
+                break;
+
+            case TimeType:
+                if (target == Types.LocalTimeType) {
+                    return (value, columnName) -> ((Time) value).toLocalTime();
+                }
+                break;
+
+            case InstantType:
+            case OffsetDateTimeType:
+            case ZonedDateTimeType:
+                return (value, columnName) -> {
+                    log.warn(source + " not yet supported", new Throwable());
+                    return value;
+                };
+
+            case byteArrayType:
+            case ByteArrayType:
+                switch (target) {
+                    case UUIDType:
+                        return (value, columnName) -> Util.asUuid((byte[]) value);
+
+                    case ByteBufferType:
+                        return (value, columnName) -> ByteBuffer.wrap((byte[]) value);
+
+                    case InputStreamType:
+                        return (value, columnName) -> new ByteArrayInputStream((byte[]) value);
+                }
+                break;
+
+            case ClobType:
+            case BlobType:
+                return (value, columnName) -> {
+                    log.warn("why? Clob is read as String, Blob as byte array - see readColumn method", new Throwable());
+                    return value;
+                };
+
+            case EnumType:
+                // No need to convert it here.
+                // If it's being used for the property setter then it's OK
+                // If it's being used by setParameters it's converted to String
+                // The String case converts from the String to the Enum
+                break;
+
+            case UUIDType:
+                if (target == Types.BlobType || target == Types.byteArrayType || target == Types.ByteArrayType) {
+                    return (value, columnName) -> Util.asBytes((UUID) value);
+                }
+                break;
+        }
+
+        // booleans, bytes, shorts, floats, characters, objects etc. are used as is
+        return none;
+    }
+
+    private static Conversion resolveFromString(Types target, Class<?> targetType) {
+        switch (target) {
+            case UtilDateType:
+            case SQLDateType:
+                // Read a string but we want a date
+                // This condition occurs in SQLite when you have a datetime with default annotated
+                // the format returned is 2012-06-02 19:59:49
+                // Used for SQLite returning dates as Strings under some conditions
+                // SQL or others may return STRING yyyy-MM-dd for older legacy 'date' type.
+                // https://docs.microsoft.com/en-us/sql/t-sql/data-types/date-transact-sql?view=sql-server-ver15
+                if (target == Types.SQLDateType) {
+                    return (value, columnName) -> new java.sql.Date(DateTimes.toDate(parseDateTime(value, targetType, columnName)).getTime());
+                }
+                return (value, columnName) -> DateTimes.toDate(parseDateTime(value, targetType, columnName));
+
+            case TimestampType:
+                return (value, columnName) -> Timestamp.valueOf(parseDateTime(value, targetType, columnName));
+
+            case LocalDateType:
+                // JTDS
+                return (value, columnName) -> parseDateTime(value, targetType, columnName).toLocalDate();
+
+            case LocalDateTimeType:
+                // JTDS
+                return (value, columnName) -> parseDateTime(value, targetType, columnName);
+
+            case EnumType:
+                if (!targetType.isEnum()) {
+                    break;
+                }
+                // If this is an enum do a case insensitive comparison - first match wins as before.
+                Map<String, Object> constants = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (Object element : targetType.getEnumConstants()) {
+                    constants.putIfAbsent(element.toString(), element);
+                }
+                return (value, columnName) -> {
+                    Object element = constants.get(value);
+                    return element != null ? element : value;
+                };
+
+            case UUIDType:
+                return (value, columnName) -> UUID.fromString((String) value);
+
+            case BooleanType:
+            case booleanType:
+                // String to Boolean - true or 1 - otherwise false (or null)
+                return (value, columnName) -> ((String) value).equalsIgnoreCase("true") || value.equals("1");
+
+            case TimeType:
+                // MSSQL works, JTDS returns Varchar with varying decimal numbers - Time.valueOf drops the fraction.
+                return (value, columnName) -> Time.valueOf(parseTime(value, targetType, columnName));
+
+            case LocalTimeType:
+                // JTDS Fails again...
+                return (value, columnName) -> parseTime(value, targetType, columnName);
+
+            case CharacterType:
+            case characterType:
+                return (value, columnName) -> {
+                    String s = (String) value;
+                    return s.length() > 0 ? s.charAt(0) : s;
+                };
+
+            case charArrayType:
+                return (value, columnName) -> ((String) value).toCharArray();
+
+            case ReaderType:
+                return (value, columnName) -> new StringReader((String) value);
+
+            case BigDecimalType:
+                return (value, columnName) -> {
+                    try {
+                        return new BigDecimal((String) value);
+                    } catch (NumberFormatException e) {
+                        String msg = "NumberFormatException: Column: " + columnName + " Type of property: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
+                        throw new PersismException(msg, e);
+                    }
+                };
+        }
+        return none;
+    }
+
+    /*
+     * Used by convert for convenience - common possible parsing
+     */
+    private static LocalDateTime parseDateTime(Object value, Class<?> targetType, String columnName) throws PersismException {
+        try {
+            return DateTimes.parseDateTime((String) value);
+        } catch (DateTimeException e) {
+            String msg = e.getMessage() + ". Column: " + columnName + " Target Conversion: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
+            throw new PersismException(msg, e);
+        }
+    }
+
+    private static LocalTime parseTime(Object value, Class<?> targetType, String columnName) throws PersismException {
+        try {
+            return DateTimes.parseTime((String) value);
+        } catch (DateTimeException e) {
+            String msg = e.getMessage() + ". Column: " + columnName + " Target Conversion: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
+            throw new PersismException(msg, e);
+        }
+    }
+}
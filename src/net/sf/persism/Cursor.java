@@ -0,0 +1,114 @@
+package net.sf.persism;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the rows of an open query, reading each row as it is requested. Returned by Session.cursor.
+ * <p>
+ * Only the current row is kept in memory so the result can be larger than the heap. The Statement and ResultSet
+ * are closed when the last row has been read, when reading fails or when the cursor is closed - always close
+ * the cursor (try-with-resources) if you may stop before the end.
+ *
+ * @param <T> Type of objects returned
+ */
+public final class Cursor<T> implements Iterator<T>, AutoCloseable {
+
+    private static final Log log = Log.getLogger(Cursor.class);
+
+    private final Result result;
+    private final RowReader<T> reader;
+    private final Session session;
+
+    private boolean fetched;
+    private boolean closed;
+
+    Cursor(Result result, RowReader<T> reader, Session session) {
+        this.result = result;
+        this.reader = reader;
+        this.session = session;
+    }
+
+    /**
+     * @return true if there's another row
+     * @throws PersismException if reading from the ResultSet fails
+     */
+    @Override
+    public boolean hasNext() throws PersismException {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                fetched = result.rs.next();
+            } catch (Exception e) {
+                fail(e);
+            }
+            if (!fetched) {
+                close();
+            }
+        }
+        return fetched;
+    }
+
+    /**
+     * @return object read from the next row
+     * @throws NoSuchElementException if there are no more rows
+     * @throws PersismException       if the row cannot be read
+     */
+    @Override
+    public T next() throws PersismException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            return reader.read(result.rs);
+        } catch (Exception e) {
+            fail(e);
+            return null;
+        }
+    }
+
+    /**
+     * @return a sequential Stream over the remaining rows. Closing the stream closes the cursor.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Close the ResultSet and the Statement (or return it to the Session statement cache). The connection is left open.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            session.cleanup(result.st, result.rs);
+        }
+    }
+
+    // Hint for the number of rows the driver fetches from now on - ignored if the driver does not support it
+    void setFetchSize(int rows) {
+        try {
+            result.rs.setFetchSize(rows);
+        } catch (SQLException e) {
+            log.debug("setFetchSize not supported: " + e.getMessage());
+        }
+    }
+
+    private void fail(Exception e) throws PersismException {
+        close();
+        session.rollback();
+        if (e instanceof PersismException) {
+            throw (PersismException) e;
+        }
+        throw new PersismException(e.getMessage(), e);
+    }
+}
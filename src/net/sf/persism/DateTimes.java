@@ -0,0 +1,187 @@
+package net.sf.persism;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+import static java.time.temporal.ChronoField.*;
+
+/**
+ * Date and time parsing used by Converters for dates and times read as Strings (SQLite, JTDS etc.) or longs (SQLite).
+ * <p>
+ * ISO-8601 style strings (yyyy-MM-dd, yyyy-MM-dd HH:mm[:ss][.fraction] with a space or T separator and
+ * HH:mm[:ss][.fraction]) are parsed directly from the characters. Anything else goes through shared
+ * DateTimeFormatters which are immutable and thread safe. Like the SimpleDateFormat parsing used before,
+ * trailing text after the date and time (a zone offset for example) is ignored.
+ */
+final class DateTimes {
+
+    // single digit months, days and hours, T or space separator, optional time, seconds and fraction
+    private static final DateTimeFormatter dateTimeFormatter = new DateTimeFormatterBuilder().
+            appendValue(YEAR, 4, 10, SignStyle.NORMAL).
+            appendLiteral('-').
+            appendValue(MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE).
+            appendLiteral('-').
+            appendValue(DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE).
+            optionalStart().
+            optionalStart().appendLiteral('T').optionalEnd().
+            optionalStart().appendLiteral(' ').optionalEnd().
+            appendValue(HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE).
+            appendLiteral(':').
+            appendValue(MINUTE_OF_HOUR, 2).
+            optionalStart().
+            appendLiteral(':').
+            appendValue(SECOND_OF_MINUTE, 2).
+            optionalStart().
+            appendFraction(NANO_OF_SECOND, 0, 9, true).
+            optionalEnd().
+            optionalEnd().
+            optionalEnd().
+            parseDefaulting(HOUR_OF_DAY, 0).
+            parseDefaulting(MINUTE_OF_HOUR, 0).
+            toFormatter();
+
+    private static final DateTimeFormatter timeFormatter = new DateTimeFormatterBuilder().
+            appendValue(HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE).
+            appendLiteral(':').
+            appendValue(MINUTE_OF_HOUR, 2).
+            optionalStart().
+            appendLiteral(':').
+            appendValue(SECOND_OF_MINUTE, 2).
+            optionalStart().
+            appendFraction(NANO_OF_SECOND, 0, 9, true).
+            optionalEnd().
+            optionalEnd().
+            toFormatter();
+
+    private DateTimes() {
+    }
+
+    /**
+     * @param value date or date and time
+     * @return the date and time - midnight if the value only has a date.
+     * @throws DateTimeException if the value cannot be parsed.
+     */
+    static LocalDateTime parseDateTime(String value) throws DateTimeException {
+        LocalDateTime result = parseIsoDateTime(value);
+        if (result != null) {
+            return result;
+        }
+        TemporalAccessor parsed = dateTimeFormatter.parse(value, new ParsePosition(0));
+        return LocalDateTime.of(LocalDate.from(parsed), LocalTime.from(parsed));
+    }
+
+    /**
+     * @param value time
+     * @return the time
+     * @throws DateTimeException if the value cannot be parsed.
+     */
+    static LocalTime parseTime(String value) throws DateTimeException {
+        LocalTime result = parseIsoTime(value, 0);
+        if (result != null) {
+            return result;
+        }
+        return LocalTime.from(timeFormatter.parse(value, new ParsePosition(0)));
+    }
+
+    static Date toDate(LocalDateTime value) {
+        return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // returns null if the value is not in the format we expect, or not valid - the formatter then reports the error.
+    private static LocalDateTime parseIsoDateTime(String value) {
+        int length = value.length();
+        if (length < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+
+        LocalTime time;
+        if (length == 10) {
+            time = LocalTime.MIDNIGHT;
+        } else {
+            char separator = value.charAt(10);
+            if (separator != ' ' && separator != 'T') {
+                return null;
+            }
+            time = parseIsoTime(value, 11);
+            if (time == null) {
+                return null;
+            }
+        }
+
+        try {
+            return LocalDateTime.of(LocalDate.of(year, month, day), time);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // HH:mm[:ss][.fraction] starting at offset up to the end of the value
+    private static LocalTime parseIsoTime(String value, int offset) {
+        int length = value.length() - offset;
+        if (length < 5 || value.charAt(offset + 2) != ':') {
+            return null;
+        }
+        int hour = digits(value, offset, 2);
+        int minute = digits(value, offset + 3, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 5) {
+            if (length < 8 || value.charAt(offset + 5) != ':') {
+                return null;
+            }
+            second = digits(value, offset + 6, 2);
+            if (length > 8) {
+                int fraction = length - 9;
+                if (value.charAt(offset + 8) != '.' || fraction < 1 || fraction > 9) {
+                    return null;
+                }
+                nano = digits(value, offset + 9, fraction);
+                for (int j = fraction; j < 9 && nano >= 0; j++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if (hour < 0 || minute < 0 || second < 0 || nano < 0) {
+            return null;
+        }
+
+        try {
+            return LocalTime.of(hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // -1 if any character is not a digit
+    private static int digits(String value, int offset, int count) {
+        int result = 0;
+        for (int j = offset; j < offset + count; j++) {
+            int digit = value.charAt(j) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package net.sf.persism;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Builds the direct field accessors used by PropertyInfo for field access (see FieldAccess annotation and
+ * Session.setFieldAccess).
+ * <p>
+ * This is the Java 8 version which uses getter and setter MethodHandles for the field. The multi-release jar
+ * has a Java 9 version (src9 folder) which uses VarHandles.
+ */
+final class FieldAccessors {
+
+    private static final Log log = Log.getLogger(FieldAccessors.class);
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private FieldAccessors() {
+    }
+
+    /**
+     * @return reader for the field or null if we cannot access it.
+     */
+    static Function<Object, Object> getter(Field field) {
+        MethodHandle handle;
+        try {
+            field.setAccessible(true);
+            handle = lookup.unreflectGetter(field).asType(getterType);
+        } catch (RuntimeException | IllegalAccessException e) {
+            log.debug("getter: " + field + " not accessible. " + e.getMessage());
+            return null;
+        }
+
+        return object -> {
+            try {
+                return handle.invokeExact(object);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * @return writer for the field or null if we cannot access it.
+     */
+    static BiConsumer<Object, Object> setter(Field field) {
+        MethodHandle handle;
+        try {
+            field.setAccessible(true);
+            handle = lookup.unreflectSetter(field).asType(setterType);
+        } catch (RuntimeException | IllegalAccessException e) {
+            log.debug("setter: " + field + " not accessible. " + e.getMessage());
+            return null;
+        }
+
+        return Accessors.widening(field.getType(), (object, value) -> {
+            try {
+                handle.invokeExact(object, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        });
+    }
+}
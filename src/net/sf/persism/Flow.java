@@ -0,0 +1,80 @@
+package net.sf.persism;
+
+/**
+ * Reactive streams interfaces used by Session.publish. These mirror java.util.concurrent.Flow (Java 9) method for
+ * method so Persism can still run on Java 8. On Java 9+ FlowAdapters.toFlowPublisher (in the Java 9 classes of the
+ * multi-release jar) adapts a Publisher to java.util.concurrent.Flow.
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    /**
+     * Producer of items received by Subscribers.
+     *
+     * @param <T> Type of items published
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Add a subscriber. Its onSubscribe is called with a new Subscription.
+         *
+         * @param subscriber the subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of items. Methods are called in sequence - never concurrently.
+     *
+     * @param <T> Type of items received
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method. No items are sent until Subscription.request is called.
+         *
+         * @param subscription the subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item - at most as many times as the items requested.
+         *
+         * @param item the item
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the publisher fails. No other method is called after this.
+         *
+         * @param throwable the exception
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when all the items were sent. No other method is called after this.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between a Publisher and a Subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Add n items to the demand of the subscriber.
+         *
+         * @param n number of items - Long.MAX_VALUE for all of them
+         */
+        void request(long n);
+
+        /**
+         * Stop sending items and release resources. Some items may still be sent.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,54 @@
+package net.sf.persism;
+
+import net.sf.persism.annotations.Column;
+
+/**
+ * Implemented by the mappers generated with the optional persism-processor annotation processor.
+ * When Persism finds a generated mapper for a data class it uses it to create instances and to read and write
+ * properties instead of discovering them with reflection.
+ * <p>
+ * You don't implement this interface yourself. The generated class is named after the data class with a
+ * "_PersismMapper" suffix (nested classes use '_' instead of '$') in the same package.
+ *
+ * @param <T> data class
+ */
+public interface GeneratedMapper<T> {
+
+    /**
+     * @return new instance of the data class
+     */
+    T newInstance();
+
+    /**
+     * @return property names in lower case - the same names Persism discovers from the getters and setters.
+     */
+    String[] propertyNames();
+
+    /**
+     * @return property types in the same order as propertyNames
+     */
+    Class<?>[] propertyTypes();
+
+    /**
+     * @return Column annotation for each property in the same order as propertyNames - null where there is none.
+     */
+    Column[] columns();
+
+    /**
+     * Read a property value. Used to bind statement parameters.
+     *
+     * @param object   data object
+     * @param property index of the property in propertyNames
+     * @return property value
+     */
+    Object get(T object, int property);
+
+    /**
+     * Write a property value. Used when mapping rows.
+     *
+     * @param object   data object
+     * @param property index of the property in propertyNames
+     * @param value    value to set
+     */
+    void set(T object, int property, Object value);
+}
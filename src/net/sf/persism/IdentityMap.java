@@ -0,0 +1,78 @@
+package net.sf.persism;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Objects read or written by a Session keyed by class and primary key values. See Session.setIdentityMap.
+ * Like Session this is not thread safe.
+ */
+final class IdentityMap {
+
+    private final Map<Key, Object> objects = new HashMap<>(64);
+
+    // primary key properties for each class - empty if the class has no primary key or is not a table
+    private final Map<Class<?>, PropertyInfo[]> keyProperties = new HashMap<>(16);
+
+    PropertyInfo[] getKeyProperties(Class<?> objectClass) {
+        return keyProperties.get(objectClass);
+    }
+
+    void putKeyProperties(Class<?> objectClass, PropertyInfo[] properties) {
+        keyProperties.put(objectClass, properties);
+    }
+
+    Object get(Class<?> objectClass, Object[] primaryKeyValues) {
+        return objects.get(new Key(objectClass, primaryKeyValues));
+    }
+
+    void put(Class<?> objectClass, Object[] primaryKeyValues, Object object) {
+        objects.put(new Key(objectClass, primaryKeyValues), object);
+    }
+
+    // returns the instance already mapped or maps and returns this one
+    Object putIfAbsent(Class<?> objectClass, Object[] primaryKeyValues, Object object) {
+        Object existing = objects.putIfAbsent(new Key(objectClass, primaryKeyValues), object);
+        return existing != null ? existing : object;
+    }
+
+    void remove(Class<?> objectClass, Object[] primaryKeyValues) {
+        objects.remove(new Key(objectClass, primaryKeyValues));
+    }
+
+    int size() {
+        return objects.size();
+    }
+
+    void clear() {
+        objects.clear();
+    }
+
+    private static final class Key {
+        final Class<?> objectClass;
+        final Object[] values;
+
+        Key(Class<?> objectClass, Object[] values) {
+            this.objectClass = objectClass;
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return objectClass == key.objectClass && Arrays.deepEquals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * objectClass.hashCode() + Arrays.deepHashCode(values);
+        }
+    }
+}
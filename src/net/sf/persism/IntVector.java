@@ -0,0 +1,75 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of int values read with ResultSet.getInt. Null values read as 0 - check isNull.
+ *
+ * @see Session#queryIntVector(String, Object...)
+ */
+public final class IntVector extends ColumnVector {
+
+    private int[] values;
+
+    IntVector(int capacity) {
+        values = new int[capacity];
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return the value at index or 0 if it is null
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    /**
+     * @return copy of the values with nulls as 0
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    int getIntValue(int index) {
+        return get(index);
+    }
+
+    @Override
+    long getLongValue(int index) {
+        return get(index);
+    }
+
+    @Override
+    double getDoubleValue(int index) {
+        return get(index);
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(size));
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        add(rs.getInt(column));
+        if (rs.wasNull()) {
+            setNull(size - 1);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+}
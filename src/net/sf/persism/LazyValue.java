@@ -0,0 +1,91 @@
+package net.sf.persism;
+
+import java.util.function.Supplier;
+
+/**
+ * Holder for the value of a Lazy property. Values read from the database are loaded by primary key with
+ * the Session which read the object the first time get is called - that Session should still be open.
+ * <p>
+ * Updates only write the column if the value was changed with set (or the holder was created with of).
+ * Like data objects, LazyValue is not thread safe.
+ *
+ * @param <T> Type of the value - usually String for CLOB columns or byte[] for BLOB columns
+ * @see net.sf.persism.annotations.Lazy
+ */
+public final class LazyValue<T> {
+
+    private T value;
+    private boolean loaded;
+    private boolean changed;
+
+    // loads the value for objects read from the database - null once loaded
+    private Supplier<T> loader;
+
+    LazyValue(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    private LazyValue(T value) {
+        set(value);
+    }
+
+    /**
+     * @param value the value
+     * @param <T>   Type of the value
+     * @return a loaded holder for the value - written by insert and update.
+     */
+    public static <T> LazyValue<T> of(T value) {
+        return new LazyValue<>(value);
+    }
+
+    /**
+     * @return the value - loading it from the database the first time.
+     * @throws PersismException if the value cannot be loaded.
+     */
+    public T get() throws PersismException {
+        if (!loaded) {
+            value = loader.get();
+            loaded = true;
+            loader = null;
+        }
+        return value;
+    }
+
+    /**
+     * Change the value. The column is written by the next insert or update of the object.
+     *
+     * @param value new value
+     */
+    public void set(T value) {
+        this.value = value;
+        loaded = true;
+        changed = true;
+        loader = null;
+    }
+
+    /**
+     * @return true if the value was loaded or set
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    boolean isChanged() {
+        return changed;
+    }
+
+    // value to write - not loaded from the database
+    T peek() {
+        return value;
+    }
+
+    // called after the value was written
+    void saved() {
+        changed = false;
+    }
+
+    @Override
+    public String toString() {
+        return loaded ? String.valueOf(value) : "(not loaded)";
+    }
+}
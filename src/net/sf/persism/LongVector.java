@@ -0,0 +1,70 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of long values read with ResultSet.getLong. Null values read as 0 - check isNull.
+ *
+ * @see Session#queryLongVector(String, Object...)
+ */
+public final class LongVector extends ColumnVector {
+
+    private long[] values;
+
+    LongVector(int capacity) {
+        values = new long[capacity];
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return the value at index or 0 if it is null
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    /**
+     * @return copy of the values with nulls as 0
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    long getLongValue(int index) {
+        return get(index);
+    }
+
+    @Override
+    double getDoubleValue(int index) {
+        return get(index);
+    }
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(size));
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        add(rs.getLong(column));
+        if (rs.wasNull()) {
+            setNull(size - 1);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+}
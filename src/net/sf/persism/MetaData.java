@@ -1,12 +1,20 @@
 package net.sf.persism;
 
 import net.sf.persism.annotations.Column;
+import net.sf.persism.annotations.FieldAccess;
+import net.sf.persism.annotations.Lazy;
 import net.sf.persism.annotations.NotColumn;
+import net.sf.persism.annotations.NotTable;
 import net.sf.persism.annotations.Table;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,12 +32,24 @@ final class MetaData {
     private static final Log log = Log.getLogger(MetaData.class);
 
     // properties for each class - static because this won't change between MetaData instances
-    private static final Map<Class, Collection<PropertyInfo>> propertyMap = new ConcurrentHashMap<>(32);
+    private static final Map<Class<?>, Collection<PropertyInfo>> propertyMap = new ConcurrentHashMap<>(32);
+
+    // mappers generated by persism-processor for each class (if any)
+    private static final Map<Class<?>, GeneratedMapper<?>> mapperMap = new ConcurrentHashMap<>(32);
+
+    // constructors for immutable classes (records etc.) - classes using setters are not in this map
+    private static final Map<Class<?>, ConstructorInfo> constructorMap = new ConcurrentHashMap<>(32);
+
+    // properties for each class indexed by normalized name to match columns
+    private static final Map<Class<?>, PropertyIndex> propertyIndexMap = new ConcurrentHashMap<>(32);
 
     // column to property map for each class
     private Map<Class, Map<String, PropertyInfo>> propertyInfoMap = new ConcurrentHashMap<Class, Map<String, PropertyInfo>>(32);
     private Map<Class, Map<String, ColumnInfo>> columnInfoMap = new ConcurrentHashMap<Class, Map<String, ColumnInfo>>(32);
 
+    // row plans for each class - key is the result set shape (column labels and types)
+    private Map<Class<?>, Map<String, RowPlan>> rowPlanMap = new ConcurrentHashMap<>(32);
+
     // table name for each class
     private Map<Class, String> tableMap = new ConcurrentHashMap<Class, String>(32);
 
@@ -39,11 +59,9 @@ final class MetaData {
     private Map<Class, String> deleteStatementsMap = new ConcurrentHashMap<Class, String>(32);
     private Map<Class, String> selectStatementsMap = new ConcurrentHashMap<Class, String>(32);
 
-    // Key is SQL with named params, Value is SQL with ?
-    // private Map<String, String> sqlWitNamedParams = new ConcurrentHashMap<String, String>(32);
-
-    // Key is SQL with named params, Value list of named params
-    // private Map<String, List<String>> namedParams = new ConcurrentHashMap<String, List<String>>(32);
+    // Key is SQL with named params, Value is the SQL with ? and the param names - bounded see getNamedSql
+    private Map<String, NamedSql> namedSqlMap = new ConcurrentHashMap<String, NamedSql>(32);
+    static final int MAX_NAMED_SQL = 512;
 
     // private Map<Class, List<String>> primaryKeysMap = new ConcurrentHashMap<Class, List<String>>(32); // remove later maybe?
 
@@ -55,6 +73,9 @@ final class MetaData {
 
     private static final Map<String, MetaData> metaData = new ConcurrentHashMap<String, MetaData>(4);
 
+    // query caches used by sessions for this database - invalidated by inserts, updates and deletes
+    private final Set<QueryCache> queryCaches = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     ConnectionTypes connectionType;
 
     //the "extra" characters that can be used in unquoted identifier names (those beyond a-z, A-Z, 0-9 and _)
@@ -123,36 +144,13 @@ final class MetaData {
 
         try {
             ResultSetMetaData rsmd = rs.getMetaData();
-            Collection<PropertyInfo> properties = getPropertyInfo(objectClass);
+            PropertyIndex index = getPropertyIndex(objectClass);
 
             int columnCount = rsmd.getColumnCount();
             Map<String, PropertyInfo> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
             for (int j = 1; j <= columnCount; j++) {
                 String realColumnName = rsmd.getColumnLabel(j);
-                String columnName = realColumnName.toLowerCase().replace("_", "").replace(" ", "");
-                if (extraNameCharacters != null && !extraNameCharacters.isEmpty()) {
-                    // also replace these characters
-                    for (int x = 0; x < extraNameCharacters.length(); x++) {
-                        columnName = columnName.replace("" + extraNameCharacters.charAt(x), "");
-                    }
-                }
-                PropertyInfo foundProperty = null;
-                for (PropertyInfo propertyInfo : properties) {
-                    String propertyName = propertyInfo.propertyName.toLowerCase().replace("_", "");
-                    if (propertyName.equalsIgnoreCase(columnName)) {
-                        foundProperty = propertyInfo;
-                        break;
-                    } else {
-                        // check annotation against column name
-                        Annotation annotation = propertyInfo.getAnnotation(Column.class);
-                        if (annotation != null) {
-                            if (((Column) annotation).name().equalsIgnoreCase(realColumnName)) {
-                                foundProperty = propertyInfo;
-                                break;
-                            }
-                        }
-                    }
-                }
+                PropertyInfo foundProperty = index.find(normalizeColumnName(realColumnName), realColumnName);
 
                 if (foundProperty != null) {
                     columns.put(realColumnName, foundProperty);
@@ -169,6 +167,28 @@ final class MetaData {
         }
     }
 
+    private static PropertyIndex getPropertyIndex(Class<?> objectClass) {
+        PropertyIndex index = propertyIndexMap.get(objectClass);
+        if (index == null) {
+            index = new PropertyIndex(getPropertyInfo(objectClass));
+            propertyIndexMap.put(objectClass, index);
+        }
+        return index;
+    }
+
+    // lower case without underscores, spaces or the extra name characters allowed by the DB
+    private String normalizeColumnName(String columnName) {
+        String lowerCase = columnName.toLowerCase();
+        StringBuilder sb = new StringBuilder(lowerCase.length());
+        for (int j = 0; j < lowerCase.length(); j++) {
+            char c = lowerCase.charAt(j);
+            if (c != '_' && c != ' ' && (extraNameCharacters == null || extraNameCharacters.indexOf(c) < 0)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
     private synchronized <T> Map<String, ColumnInfo> determineColumnInfo(Class<T> objectClass, String tableName, Connection connection) {
         if (columnInfoMap.containsKey(objectClass)) {
             return columnInfoMap.get(objectClass);
@@ -204,6 +224,8 @@ final class MetaData {
                     columnInfo.sqlColumnTypeName = rsMetaData.getColumnTypeName(i);
                     columnInfo.columnType = Types.convert(columnInfo.sqlColumnType);
                     columnInfo.length = rsMetaData.getColumnDisplaySize(i);
+                    columnInfo.precision = rsMetaData.getPrecision(i);
+                    columnInfo.scale = rsMetaData.getScale(i);
 
                     if (!primaryKeyFound) {
                         primaryKeyFound = columnInfo.primary;
@@ -317,6 +339,21 @@ final class MetaData {
             return propertyMap.get(objectClass);
         }
 
+        GeneratedMapper<T> mapper = findGeneratedMapper(objectClass);
+        if (mapper != null) {
+            String unsupported = getUnsupportedByMapper(objectClass);
+            if (unsupported == null) {
+                Collection<PropertyInfo> properties = determinePropertyInfo(mapper);
+                for (PropertyInfo propertyInfo : properties) {
+                    determineFieldAccessors(objectClass, propertyInfo);
+                }
+                mapperMap.put(objectClass, mapper);
+                propertyMap.put(objectClass, properties);
+                return Collections.unmodifiableCollection(properties);
+            }
+            log.warn("Generated mapper for " + objectClass + " not used - " + unsupported + ". Properties are discovered with reflection.");
+        }
+
         Map<String, PropertyInfo> propertyNames = new HashMap<>(32);
 
         Method[] methods = objectClass.getMethods();
@@ -360,6 +397,31 @@ final class MetaData {
             }
         }
 
+        // Records use accessors like name() instead of getName()
+        Object[] components = getRecordComponents(objectClass);
+        if (components != null) {
+            try {
+                for (Object component : components) {
+                    Method accessor = (Method) component.getClass().getMethod("getAccessor").invoke(component);
+                    String propertyName = accessor.getName().toLowerCase();
+
+                    PropertyInfo propertyInfo = propertyNames.get(propertyName);
+                    if (propertyInfo == null) {
+                        propertyInfo = new PropertyInfo();
+                        propertyNames.put(propertyName, propertyInfo);
+                    }
+                    propertyInfo.getter = accessor;
+                    propertyInfo.propertyName = propertyName;
+                    Annotation[] annotations = accessor.getAnnotations();
+                    for (Annotation annotation : annotations) {
+                        propertyInfo.annotations.put(annotation.annotationType(), annotation);
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        }
+
         Field[] fields = objectClass.getDeclaredFields();
         for (Field field : fields) {
             PropertyInfo propertyInfo = propertyNames.get(field.getName().toLowerCase());
@@ -372,21 +434,312 @@ final class MetaData {
             }
         }
 
+        // Immutable objects are created with their constructor instead of setters
+        ConstructorInfo constructorInfo = determineConstructorInfo(objectClass, components, propertyNames);
+
         // Remove any properties found with the NoColumn annotation OR ones missing a setter (meaning they are calculated properties)
+        // unless they are set by the constructor.
         // http://stackoverflow.com/questions/2026104/hashmap-keyset-foreach-and-remove
         Iterator<Map.Entry<String, PropertyInfo>> it = propertyNames.entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<String, PropertyInfo> entry = it.next();
             PropertyInfo info = entry.getValue();
-            if (info.getAnnotation(NotColumn.class) != null || info.setter == null) {
+            if (info.getAnnotation(NotColumn.class) != null || info.setter == null && (constructorInfo == null || constructorInfo.indexOf(info) < 0)) {
                 it.remove();
             }
         }
         Collection<PropertyInfo> properties = propertyNames.values();
+        for (PropertyInfo propertyInfo : properties) {
+            if (propertyInfo.getter != null) {
+                propertyInfo.propertyType = propertyInfo.getter.getReturnType();
+                propertyInfo.reader = Accessors.getter(propertyInfo.getter);
+            } else if (propertyInfo.setter.getParameterCount() > 0) {
+                propertyInfo.propertyType = propertyInfo.setter.getParameterTypes()[0];
+            }
+            if (propertyInfo.setter != null) {
+                propertyInfo.writer = Accessors.setter(propertyInfo.setter);
+            }
+            determineFieldAccessors(objectClass, propertyInfo);
+            determineLazy(objectClass, propertyInfo, constructorInfo);
+        }
+        if (constructorInfo != null) {
+            constructorMap.put(objectClass, constructorInfo);
+        }
         propertyMap.put(objectClass, properties);
         return Collections.unmodifiableCollection(properties);
     }
 
+    // Field accessors for the field backing the property (same name ignoring case and same type) used in field access mode.
+    // Classes annotated with FieldAccess always use them.
+    static void determineFieldAccessors(Class<?> objectClass, PropertyInfo propertyInfo) {
+        Field field = null;
+        for (Class<?> c = objectClass; c != null && c != Object.class && field == null; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(f.getModifiers()) && f.getName().equalsIgnoreCase(propertyInfo.propertyName) && f.getType() == propertyInfo.propertyType) {
+                    field = f;
+                    break;
+                }
+            }
+        }
+        if (field == null) {
+            return;
+        }
+
+        propertyInfo.field = field;
+        propertyInfo.fieldReader = FieldAccessors.getter(field);
+        // final fields are set by the constructor (immutable objects) or not at all
+        if (propertyInfo.writer != null && !Modifier.isFinal(field.getModifiers())) {
+            propertyInfo.fieldWriter = FieldAccessors.setter(field);
+        }
+
+        if (objectClass.isAnnotationPresent(FieldAccess.class)) {
+            if (propertyInfo.fieldReader != null) {
+                propertyInfo.reader = propertyInfo.fieldReader;
+            }
+            if (propertyInfo.fieldWriter != null) {
+                propertyInfo.writer = propertyInfo.fieldWriter;
+            }
+        }
+    }
+
+    // Lazy properties should be LazyValue properties with a setter. The value type comes from the type argument.
+    private static void determineLazy(Class<?> objectClass, PropertyInfo propertyInfo, ConstructorInfo constructorInfo) {
+        if (propertyInfo.getAnnotation(Lazy.class) == null) {
+            return;
+        }
+        if (propertyInfo.propertyType != LazyValue.class || propertyInfo.setter == null || constructorInfo != null && constructorInfo.indexOf(propertyInfo) >= 0) {
+            throw new PersismException("Lazy property " + propertyInfo.propertyName + " for " + objectClass + " should be a LazyValue with a setter.");
+        }
+        Type type;
+        if (propertyInfo.getter != null) {
+            type = propertyInfo.getter.getGenericReturnType();
+        } else {
+            type = propertyInfo.setter.getGenericParameterTypes()[0];
+        }
+        propertyInfo.lazy = true;
+        propertyInfo.lazyType = Object.class;
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                propertyInfo.lazyType = (Class<?>) argument;
+            }
+        }
+    }
+
+    // Constructor for records (canonical constructor), classes with a ConstructorProperties annotated constructor or
+    // classes without a default constructor compiled with -parameters. Null if we should use the default constructor and setters.
+    private static <T> ConstructorInfo determineConstructorInfo(Class<T> objectClass, Object[] components, Map<String, PropertyInfo> propertyNames) {
+        if (Modifier.isAbstract(objectClass.getModifiers()) || objectClass.isPrimitive() || objectClass.isArray()) {
+            return null;
+        }
+
+        Constructor<?> constructor = null;
+        String[] names = null;
+        try {
+            if (components != null) {
+                names = new String[components.length];
+                Class<?>[] types = new Class<?>[components.length];
+                for (int j = 0; j < components.length; j++) {
+                    names[j] = (String) components[j].getClass().getMethod("getName").invoke(components[j]);
+                    types[j] = (Class<?>) components[j].getClass().getMethod("getType").invoke(components[j]);
+                }
+                constructor = objectClass.getDeclaredConstructor(types);
+            } else {
+                for (Constructor<?> c : objectClass.getConstructors()) {
+                    String[] constructorProperties = getConstructorProperties(c);
+                    if (constructorProperties != null && constructorProperties.length == c.getParameterCount()) {
+                        constructor = c;
+                        names = constructorProperties;
+                        break;
+                    }
+                }
+
+                if (constructor == null && !hasDefaultConstructor(objectClass)) {
+                    // take the constructor with the most parameters matching properties
+                    for (Constructor<?> c : objectClass.getConstructors()) {
+                        Parameter[] parameters = c.getParameters();
+                        if (parameters.length == 0 || !parameters[0].isNamePresent() || constructor != null && parameters.length <= constructor.getParameterCount()) {
+                            continue;
+                        }
+                        String[] parameterNames = new String[parameters.length];
+                        boolean matches = true;
+                        for (int j = 0; j < parameters.length && matches; j++) {
+                            parameterNames[j] = parameters[j].getName();
+                            matches = propertyNames.containsKey(parameterNames[j].toLowerCase());
+                        }
+                        if (matches) {
+                            constructor = c;
+                            names = parameterNames;
+                        }
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new PersismException(e.getMessage(), e);
+        }
+
+        if (constructor == null) {
+            return null;
+        }
+
+        PropertyInfo[] parameters = new PropertyInfo[names.length];
+        for (int j = 0; j < names.length; j++) {
+            parameters[j] = propertyNames.get(names[j].toLowerCase());
+            if (parameters[j] == null) {
+                log.warn("Constructor " + constructor + " parameter " + names[j] + " does not match a property of " + objectClass + " - constructor not used.");
+                return null;
+            }
+        }
+
+        // Mutable classes with a ConstructorProperties constructor (Lombok @Data with @AllArgsConstructor for example)
+        // use the default constructor and setters
+        if (components == null && hasDefaultConstructor(objectClass) && Arrays.stream(parameters).allMatch(p -> p.setter != null)) {
+            return null;
+        }
+        return new ConstructorInfo(parameters, constructor.getParameterTypes(), Accessors.constructor(constructor));
+    }
+
+    // Java 16+ records - checked by reflection since we build with Java 8. Null if the class is not a record.
+    static Object[] getRecordComponents(Class<?> objectClass) {
+        try {
+            if ((Boolean) Class.class.getMethod("isRecord").invoke(objectClass)) {
+                return (Object[]) Class.class.getMethod("getRecordComponents").invoke(objectClass);
+            }
+        } catch (NoSuchMethodException e) {
+            // older JVM - no records
+        } catch (ReflectiveOperationException e) {
+            log.warn("Could not read record components of " + objectClass + " " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    // java.beans.ConstructorProperties (checked by name since java.beans may not be available on newer JVMs)
+    private static String[] getConstructorProperties(Constructor<?> constructor) {
+        for (Annotation annotation : constructor.getAnnotations()) {
+            if ("java.beans.ConstructorProperties".equals(annotation.annotationType().getName())) {
+                try {
+                    return (String[]) annotation.annotationType().getMethod("value").invoke(annotation);
+                } catch (ReflectiveOperationException e) {
+                    log.warn("Could not read " + annotation + " " + e.getMessage(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasDefaultConstructor(Class<?> objectClass) {
+        try {
+            objectClass.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Constructor used to create immutable objects or null if the class uses setters.
+    static <T> ConstructorInfo getConstructorInfo(Class<T> objectClass) {
+        getPropertyInfo(objectClass);
+        return constructorMap.get(objectClass);
+    }
+
+    // Generated mappers only read and write properties with the default constructor, getters and setters.
+    // Null if the mapper can be used or the reason it can't - Lazy properties or constructor mapping.
+    private static String getUnsupportedByMapper(Class<?> objectClass) {
+        for (Field field : objectClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Lazy.class)) {
+                return "Lazy property " + field.getName();
+            }
+        }
+        for (Method method : objectClass.getMethods()) {
+            if (method.isAnnotationPresent(Lazy.class)) {
+                return "Lazy property " + method.getName();
+            }
+        }
+        // see determineConstructorInfo - mutable classes use the default constructor and setters
+        for (Constructor<?> constructor : objectClass.getConstructors()) {
+            String[] names = getConstructorProperties(constructor);
+            if (names != null && (!hasDefaultConstructor(objectClass) || !hasSetters(objectClass, names))) {
+                return "ConstructorProperties constructor";
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasSetters(Class<?> objectClass, String[] propertyNames) {
+        Set<String> setters = new HashSet<>();
+        for (Method method : objectClass.getMethods()) {
+            if (method.getName().startsWith("set") && method.getParameterCount() == 1) {
+                setters.add(method.getName().substring(3).toLowerCase());
+            }
+        }
+        for (String propertyName : propertyNames) {
+            if (!setters.contains(propertyName.toLowerCase())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Properties from a mapper generated by persism-processor - no reflection needed.
+    // The reader and writer are only called with objects of the mapped class.
+    @SuppressWarnings("unchecked")
+    private static <T> Collection<PropertyInfo> determinePropertyInfo(GeneratedMapper<T> mapper) {
+        String[] names = mapper.propertyNames();
+        Class<?>[] types = mapper.propertyTypes();
+        Column[] columns = mapper.columns();
+
+        List<PropertyInfo> properties = new ArrayList<>(names.length);
+        for (int j = 0; j < names.length; j++) {
+            int index = j;
+            PropertyInfo propertyInfo = new PropertyInfo();
+            propertyInfo.propertyName = names[j];
+            propertyInfo.propertyType = types[j];
+            propertyInfo.reader = object -> mapper.get((T) object, index);
+            propertyInfo.writer = (object, value) -> mapper.set((T) object, index, value);
+            if (columns[j] != null) {
+                propertyInfo.annotations.put(Column.class, columns[j]);
+            }
+            properties.add(propertyInfo);
+        }
+        return properties;
+    }
+
+    private static <T> GeneratedMapper<T> findGeneratedMapper(Class<T> objectClass) {
+        if (objectClass.isPrimitive() || objectClass.isArray()) {
+            return null;
+        }
+        String mapperName = objectClass.getName().replace('$', '_') + "_PersismMapper";
+        try {
+            Class<?> mapperClass = Class.forName(mapperName, true, objectClass.getClassLoader());
+            if (GeneratedMapper.class.isAssignableFrom(mapperClass)) {
+                log.debug("Using generated mapper " + mapperName);
+                // generated as <class name>_PersismMapper implements GeneratedMapper<class name>
+                @SuppressWarnings("unchecked")
+                GeneratedMapper<T> mapper = (GeneratedMapper<T>) mapperClass.newInstance();
+                return mapper;
+            }
+            log.warn(mapperName + " does not implement " + GeneratedMapper.class.getName() + " - Ignoring.");
+        } catch (ClassNotFoundException e) {
+            // usual case - no persism-processor
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Could not load generated mapper " + mapperName + " " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    // Creates a new data object - with the generated mapper if there is one.
+    static <T> T newInstance(Class<T> objectClass) throws ReflectiveOperationException {
+        getPropertyInfo(objectClass); // ensures we've looked for the mapper
+        // mappers are stored by the class they map
+        @SuppressWarnings("unchecked")
+        GeneratedMapper<T> mapper = (GeneratedMapper<T>) mapperMap.get(objectClass);
+        if (mapper != null) {
+            return mapper.newInstance();
+        }
+        // should be getDeclaredConstructor().newInstance() now.
+        return objectClass.newInstance();
+    }
+
 
     private static final String[] tableTypes = {"TABLE"};
 
@@ -423,9 +776,13 @@ final class MetaData {
      * @throws NoChangesDetectedForUpdateException if the data object implements Persistable and there are no changes detected
      */
     String getUpdateStatement(Object object, Connection connection) throws PersismException, NoChangesDetectedForUpdateException {
+        return getUpdateStatement(object, connection, false);
+    }
+
+    String getUpdateStatement(Object object, Connection connection, boolean fieldAccess) throws PersismException, NoChangesDetectedForUpdateException {
 
         if (object instanceof Persistable) {
-            Map<String, PropertyInfo> changes = getChangedProperties((Persistable) object, connection);
+            Map<String, PropertyInfo> changes = getChangedProperties((Persistable) object, connection, fieldAccess);
             if (changes.size() == 0) {
                 throw new NoChangesDetectedForUpdateException();
             }
@@ -441,9 +798,46 @@ final class MetaData {
             return updateStatementsMap.get(object.getClass());
         }
 
+        if (hasLazyProperties(object.getClass(), connection)) {
+            // Note we don't add these to updateStatementsMap since the Lazy columns depend on the values set.
+            return buildUpdateString(object, getUpdateProperties(object, connection, fieldAccess).keySet().iterator(), connection);
+        }
+
         return determineUpdateStatement(object, connection);
     }
 
+    // Columns written by an update - changed properties for Persistable objects or all the columns except Lazy ones not set
+    Map<String, PropertyInfo> getUpdateProperties(Object object, Connection connection, boolean fieldAccess) {
+        if (object instanceof Persistable) {
+            return getChangedProperties((Persistable) object, connection, fieldAccess);
+        }
+        Map<String, PropertyInfo> columns = getTableColumnsPropertyInfo(object.getClass(), connection);
+        if (!hasLazyProperties(object.getClass(), connection)) {
+            return columns;
+        }
+        Map<String, PropertyInfo> updateColumns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, PropertyInfo> entry : columns.entrySet()) {
+            PropertyInfo propertyInfo = entry.getValue();
+            if (propertyInfo.lazy) {
+                LazyValue<?> value = (LazyValue<?>) propertyInfo.getValue(object, fieldAccess);
+                if (value == null || !value.isChanged()) {
+                    continue;
+                }
+            }
+            updateColumns.put(entry.getKey(), propertyInfo);
+        }
+        return updateColumns;
+    }
+
+    boolean hasLazyProperties(Class<?> objectClass, Connection connection) {
+        for (PropertyInfo propertyInfo : getTableColumnsPropertyInfo(objectClass, connection).values()) {
+            if (propertyInfo.lazy) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Used by Objects not implementing Persistable since they will always use the same update statement
     private synchronized String determineUpdateStatement(Object object, Connection connection) {
         if (updateStatementsMap.containsKey(object.getClass())) {
@@ -467,13 +861,17 @@ final class MetaData {
 
     // Note this will not include columns unless they have the associated property.
     String getInsertStatement(Object object, Connection connection) throws PersismException {
+        return getInsertStatement(object, connection, false);
+    }
+
+    String getInsertStatement(Object object, Connection connection, boolean fieldAccess) throws PersismException {
         if (insertStatementsMap.containsKey(object.getClass())) {
             return insertStatementsMap.get(object.getClass());
         }
-        return determineInsertStatement(object, connection);
+        return determineInsertStatement(object, connection, fieldAccess);
     }
 
-    private synchronized String determineInsertStatement(Object object, Connection connection) {
+    private synchronized String determineInsertStatement(Object object, Connection connection, boolean fieldAccess) {
         if (insertStatementsMap.containsKey(object.getClass())) {
             return insertStatementsMap.get(object.getClass());
         }
@@ -499,7 +897,7 @@ final class MetaData {
 
                         // Do not include if this column has a default and no value has been
                         // set on it's associated property.
-                        if (properties.get(column.columnName).getter.invoke(object) == null) {
+                        if (properties.get(column.columnName).getValue(object, fieldAccess) == null) {
                             continue;
                         }
 
@@ -516,7 +914,7 @@ final class MetaData {
                     if (column.hasDefault) {
                         // Do not include if this column has a default and no value has been
                         // set on it's associated property.
-                        if (properties.get(column.columnName).getter.invoke(object) == null) {
+                        if (properties.get(column.columnName).getValue(object, fieldAccess) == null) {
                             continue;
                         }
                     }
@@ -602,24 +1000,13 @@ final class MetaData {
         String sd = connectionType.getKeywordStartDelimiter();
         String ed = connectionType.getKeywordEndDelimiter();
 
-        String tableName = getTableName(object.getClass(), connection);
-
         List<String> primaryKeys = getPrimaryKeys(object.getClass(), connection);
 
         StringBuilder sb = new StringBuilder();
-        sb.append("SELECT ");
+        appendSelectFrom(sb, object.getClass(), connection);
+        sb.append(" WHERE ");
 
         String sep = "";
-
-        Map<String, ColumnInfo> columns = getColumns(object.getClass(), connection);
-        for (String column : columns.keySet()) {
-            ColumnInfo columnInfo = columns.get(column);
-            sb.append(sep).append(sd).append(columnInfo.columnName).append(ed);
-            sep = ", ";
-        }
-        sb.append(" FROM ").append(sd).append(tableName).append(ed).append(" WHERE ");
-
-        sep = "";
         for (String column : primaryKeys) {
             sb.append(sep).append(sd).append(column).append(ed).append(" = ?");
             sep = " AND ";
@@ -636,6 +1023,231 @@ final class MetaData {
         return selectStatement;
     }
 
+    // SELECT of all the columns for keyCount primary keys - WHERE pk IN (?, ?...) or for composite keys
+    // WHERE (pk1 = ? AND pk2 = ?) OR (pk1 = ? AND pk2 = ?)... in the order of getPrimaryKeys
+    String getFetchAllStatement(Class<?> objectClass, int keyCount, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        List<String> primaryKeys = getPrimaryKeys(objectClass, connection);
+
+        StringBuilder sb = new StringBuilder();
+        appendSelectFrom(sb, objectClass, connection);
+        sb.append(" WHERE ");
+        if (primaryKeys.size() == 1) {
+            sb.append(sd).append(primaryKeys.get(0)).append(ed).append(" IN (");
+            for (int j = 0; j < keyCount; j++) {
+                sb.append(j == 0 ? "?" : ", ?");
+            }
+            sb.append(")");
+        } else {
+            for (int j = 0; j < keyCount; j++) {
+                sb.append(j == 0 ? "(" : " OR (");
+                String sep = "";
+                for (String column : primaryKeys) {
+                    sb.append(sep).append(sd).append(column).append(ed).append(" = ?");
+                    sep = " AND ";
+                }
+                sb.append(")");
+            }
+        }
+        return sb.toString();
+    }
+
+    // Parsed once per SQL string. When the map is full an arbitrary entry is dropped to keep it bounded - SQL built
+    // with literals instead of parameters would otherwise grow it forever.
+    NamedSql getNamedSql(String sql) {
+        NamedSql namedSql = namedSqlMap.get(sql);
+        if (namedSql == null) {
+            namedSql = NamedSql.parse(sql);
+            if (namedSqlMap.size() >= MAX_NAMED_SQL) {
+                Iterator<String> it = namedSqlMap.keySet().iterator();
+                if (it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            namedSqlMap.put(sql, namedSql);
+        }
+        return namedSql;
+    }
+
+    // SELECT column FROM table WHERE pk1 = ? AND pk2 = ?... in the order of getPrimaryKeys - loads a Lazy column
+    String getLazyStatement(Class<?> objectClass, String columnName, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT ").append(sd).append(columnName).append(ed).append(" FROM ").
+                append(sd).append(getTableName(objectClass, connection)).append(ed).append(" WHERE ");
+        String sep = "";
+        for (String column : getPrimaryKeys(objectClass, connection)) {
+            sb.append(sep).append(sd).append(column).append(ed).append(" = ?");
+            sep = " AND ";
+        }
+        return sb.toString();
+    }
+
+    // SELECT MIN(pk), MAX(pk) FROM table - for classes with a single primary key
+    String getKeyRangeStatement(Class<?> objectClass, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        String primaryKey = getPrimaryKeys(objectClass, connection).get(0);
+        return "SELECT MIN(" + sd + primaryKey + ed + "), MAX(" + sd + primaryKey + ed + ") FROM " +
+                sd + getTableName(objectClass, connection) + ed;
+    }
+
+    // SELECT of all the columns WHERE pk >= ? AND pk <= ? - for classes with a single primary key
+    String getKeyRangeSelectStatement(Class<?> objectClass, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        String primaryKey = getPrimaryKeys(objectClass, connection).get(0);
+
+        StringBuilder sb = new StringBuilder();
+        appendSelectFrom(sb, objectClass, connection);
+        sb.append(" WHERE ").append(sd).append(primaryKey).append(ed).append(" >= ? AND ").
+                append(sd).append(primaryKey).append(ed).append(" <= ?");
+        return sb.toString();
+    }
+
+    // Keyset page: SELECT of all the columns after the primary key values (if after is true) in primary key order
+    // limited to limit rows. Parameters are the primary key values in the order of getPageParameters.
+    String getPageStatement(Class<?> objectClass, boolean after, int limit, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        List<String> primaryKeys = getPrimaryKeys(objectClass, connection);
+
+        StringBuilder sb = new StringBuilder();
+        appendSelectFrom(sb, objectClass, connection);
+        switch (connectionType) {
+            case MSSQL:
+            case JTDS:
+                sb.insert("SELECT ".length(), "TOP " + limit + " ");
+                break;
+            case Firebird:
+                sb.insert("SELECT ".length(), "FIRST " + limit + " ");
+                break;
+        }
+
+        if (after) {
+            sb.append(" WHERE ");
+            if (primaryKeys.size() == 1) {
+                sb.append(sd).append(primaryKeys.get(0)).append(ed).append(" > ?");
+            } else if (supportsRowValues()) {
+                // (pk1, pk2) > (?, ?)
+                String sep = "(";
+                for (String column : primaryKeys) {
+                    sb.append(sep).append(sd).append(column).append(ed);
+                    sep = ", ";
+                }
+                sb.append(") > (");
+                for (int j = 0; j < primaryKeys.size(); j++) {
+                    sb.append(j == 0 ? "?" : ", ?");
+                }
+                sb.append(")");
+            } else {
+                // (pk1 > ?) OR (pk1 = ? AND pk2 > ?)...
+                for (int j = 0; j < primaryKeys.size(); j++) {
+                    sb.append(j == 0 ? "(" : " OR (");
+                    for (int k = 0; k <= j; k++) {
+                        sb.append(k == 0 ? "" : " AND ").append(sd).append(primaryKeys.get(k)).append(ed).append(k == j ? " > ?" : " = ?");
+                    }
+                    sb.append(")");
+                }
+            }
+        }
+
+        sb.append(" ORDER BY ");
+        String sep = "";
+        for (String column : primaryKeys) {
+            sb.append(sep).append(sd).append(column).append(ed);
+            sep = ", ";
+        }
+
+        switch (connectionType) {
+            case MSSQL:
+            case JTDS:
+            case Firebird:
+                break;
+            case Oracle:
+                // ROWNUM for Oracle before 12c
+                sb.insert(0, "SELECT * FROM (").append(") WHERE ROWNUM <= ").append(limit);
+                break;
+            case MySQL:
+            case PostgreSQL:
+            case SQLite:
+            case H2:
+            case HSQLDB:
+                sb.append(" LIMIT ").append(limit);
+                break;
+            default:
+                sb.append(" FETCH FIRST ").append(limit).append(" ROWS ONLY");
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("getPageStatement for " + objectClass + " is " + sb);
+        }
+        return sb.toString();
+    }
+
+    // index of the primary key value for each parameter of getPageStatement with after = true
+    int[] getPageParameters(Class<?> objectClass, Connection connection) {
+        int keyCount = getPrimaryKeys(objectClass, connection).size();
+        if (keyCount == 1 || supportsRowValues()) {
+            int[] parameters = new int[keyCount];
+            for (int j = 0; j < keyCount; j++) {
+                parameters[j] = j;
+            }
+            return parameters;
+        }
+        int[] parameters = new int[keyCount * (keyCount + 1) / 2];
+        int n = 0;
+        for (int j = 0; j < keyCount; j++) {
+            for (int k = 0; k <= j; k++) {
+                parameters[n++] = k;
+            }
+        }
+        return parameters;
+    }
+
+    // row value comparisons like (a, b) > (?, ?)
+    private boolean supportsRowValues() {
+        switch (connectionType) {
+            case MySQL:
+            case PostgreSQL:
+            case H2:
+            case HSQLDB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // SELECT column1, column2... FROM table
+    private void appendSelectFrom(StringBuilder sb, Class<?> objectClass, Connection connection) {
+        String sd = connectionType.getKeywordStartDelimiter();
+        String ed = connectionType.getKeywordEndDelimiter();
+
+        String tableName = getTableName(objectClass, connection);
+
+        sb.append("SELECT ");
+        String sep = "";
+        Map<String, ColumnInfo> columns = getColumns(objectClass, connection);
+        Map<String, PropertyInfo> properties = getTableColumnsPropertyInfo(objectClass, connection);
+        for (ColumnInfo columnInfo : columns.values()) {
+            PropertyInfo propertyInfo = properties.get(columnInfo.columnName);
+            if (propertyInfo != null && propertyInfo.lazy) {
+                continue;
+            }
+            sb.append(sep).append(sd).append(columnInfo.columnName).append(ed);
+            sep = ", ";
+        }
+        sb.append(" FROM ").append(sd).append(tableName).append(ed);
+    }
+
     private String buildUpdateString(Object object, Iterator<String> it, Connection connection) throws PersismException {
         // todo STUPID UPDATE STATEMENT IS IN ALPHABETICAL ORDER FFS
 
@@ -668,6 +1280,10 @@ final class MetaData {
     }
 
     Map<String, PropertyInfo> getChangedProperties(Persistable persistable, Connection connection) throws PersismException {
+        return getChangedProperties(persistable, connection, false);
+    }
+
+    Map<String, PropertyInfo> getChangedProperties(Persistable<?> persistable, Connection connection, boolean fieldAccess) throws PersismException {
 
         try {
             Persistable original = (Persistable) persistable.getOriginalValue();
@@ -685,10 +1301,15 @@ final class MetaData {
 
                     Object newValue = null;
                     Object orgValue = null;
-                    newValue = propertyInfo.getter.invoke(persistable);
-                    orgValue = propertyInfo.getter.invoke(original);
+                    newValue = propertyInfo.getValue(persistable, fieldAccess);
+                    orgValue = propertyInfo.getValue(original, fieldAccess);
 
-                    if (newValue != null && !newValue.equals(orgValue) || orgValue != null && !orgValue.equals(newValue)) {
+                    if (propertyInfo.lazy) {
+                        // the original shares the LazyValue so only set values are changes
+                        if (newValue != orgValue || newValue != null && ((LazyValue<?>) newValue).isChanged()) {
+                            changedColumns.put(column, propertyInfo);
+                        }
+                    } else if (newValue != null && !newValue.equals(orgValue) || orgValue != null && !orgValue.equals(newValue)) {
                         changedColumns.put(column, propertyInfo);
                     }
                 }
@@ -724,6 +1345,179 @@ final class MetaData {
         return determinePropertyInfo(objectClass, getTableName(objectClass), connection);
     }
 
+    <T> RowPlan getRowPlan(Class<T> objectClass, ResultSet rs, Connection connection) throws PersismException {
+        try {
+            ResultSetMetaData rsmd = rs.getMetaData();
+            int columnCount = rsmd.getColumnCount();
+            StringBuilder shape = new StringBuilder(columnCount * 16);
+            for (int j = 1; j <= columnCount; j++) {
+                shape.append(rsmd.getColumnLabel(j)).append(':').append(rsmd.getColumnType(j)).append(',');
+            }
+            String key = shape.toString();
+
+            Map<String, RowPlan> plans = rowPlanMap.get(objectClass);
+            if (plans != null && plans.containsKey(key)) {
+                return plans.get(key);
+            }
+            return determineRowPlan(objectClass, key, rs, connection);
+        } catch (SQLException e) {
+            throw new PersismException(e.getMessage(), e);
+        }
+    }
+
+    // Should only be called IF the map does not contain the plan for this result set shape yet.
+    // Throws PersismException if the object would not be fully initialized by the result set (the plan is not cached).
+    private synchronized <T> RowPlan determineRowPlan(Class<T> objectClass, String key, ResultSet rs, Connection connection) throws SQLException {
+        Map<String, RowPlan> plans = rowPlanMap.get(objectClass);
+        if (plans != null && plans.containsKey(key)) {
+            return plans.get(key);
+        }
+
+        Map<String, PropertyInfo> properties;
+        if (objectClass.getAnnotation(NotTable.class) == null) {
+            properties = getTableColumnsPropertyInfo(objectClass, connection);
+        } else {
+            properties = getQueryColumnsPropertyInfo(objectClass, rs);
+        }
+
+        // Lazy columns are not read from the result set - the row gets a LazyValue loading them instead
+        List<String> lazyColumns = new ArrayList<>(0);
+        List<PropertyInfo> lazyProperties = new ArrayList<>(0);
+        for (Map.Entry<String, PropertyInfo> entry : properties.entrySet()) {
+            if (entry.getValue().lazy) {
+                lazyColumns.add(entry.getKey());
+                lazyProperties.add(entry.getValue());
+            }
+        }
+        if (!lazyColumns.isEmpty()) {
+            Map<String, PropertyInfo> readProperties = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            readProperties.putAll(properties);
+            readProperties.keySet().removeAll(lazyColumns);
+            properties = readProperties;
+        }
+
+        // Test if all properties have column mapping and throw PersismException if not
+        // This block verifies that the object is fully initialized.
+        // Any properties not marked by NotMapped should have been set (or if they have a getter only)
+        // If not throw a PersismException
+        Collection<PropertyInfo> allProperties = getPropertyInfo(objectClass);
+        if (properties.values().size() + lazyProperties.size() < allProperties.size()) {
+            Set<PropertyInfo> missing = new HashSet<>(allProperties.size());
+            missing.addAll(allProperties);
+            missing.removeAll(properties.values());
+            missing.removeAll(lazyProperties);
+
+            StringBuilder sb = new StringBuilder();
+            String sep = "";
+            for (PropertyInfo prop : missing) {
+                sb.append(sep).append(prop.propertyName);
+                sep = ",";
+            }
+
+            throw new PersismException("Object " + objectClass + " was not properly initialized. Some properties not initialized in the queried columns (" + sb + ").");
+        }
+
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int columnCount = rsmd.getColumnCount();
+        List<String> foundColumns = new ArrayList<>(columnCount);
+        List<Integer> columns = new ArrayList<>(columnCount);
+
+        for (int j = 1; j <= columnCount; j++) {
+            String columnName = rsmd.getColumnLabel(j);
+            if (properties.get(columnName) != null) {
+                foundColumns.add(columnName);
+                columns.add(j);
+            }
+        }
+
+        // This is doing a similar check to above but on the ResultSet itself.
+        // This tests for when a user writes their own SQL and forgets a column.
+        if (foundColumns.size() < properties.keySet().size()) {
+
+            Set<String> missing = new HashSet<>(columnCount);
+            missing.addAll(properties.keySet());
+            missing.removeAll(foundColumns);
+
+            // todo maybe strict mode off logs warn? Should we do this if this is Query vs Table?
+            throw new PersismException("Object " + objectClass + " was not properly initialized. Some properties not initialized by the queried columns: " + foundColumns + " Missing:" + missing);
+        }
+
+        ConstructorInfo constructorInfo = getConstructorInfo(objectClass);
+        RowPlan plan = new RowPlan(columns.size(), constructorInfo, lazyColumns.toArray(new String[0]), lazyProperties.toArray(new PropertyInfo[0]));
+        for (int j = 0; j < columns.size(); j++) {
+            int column = columns.get(j);
+            String columnName = foundColumns.get(j);
+            PropertyInfo propertyInfo = properties.get(columnName);
+
+            int sqlColumnType = rsmd.getColumnType(column);
+            if (propertyInfo.propertyType.isEnum()) {
+                // Some DBs may read an enum type as other 1111 - we can tell it here to read it as a string.
+                sqlColumnType = java.sql.Types.CHAR;
+            }
+
+            Types columnType = Types.convert(sqlColumnType); // note this could be null if we can't match a type
+            if (columnType == null) {
+                log.warn("Column type not known for SQL type " + sqlColumnType + " column: " + columnName + " class: " + objectClass, new Throwable());
+            }
+
+            plan.columns[j] = column;
+            plan.columnNames[j] = columnName;
+            plan.properties[j] = propertyInfo;
+            plan.columnTypes[j] = columnType;
+            if (constructorInfo != null) {
+                plan.parameters[j] = constructorInfo.indexOf(propertyInfo);
+            }
+        }
+
+        if (plans == null) {
+            plans = new ConcurrentHashMap<>(4);
+            rowPlanMap.put(objectClass, plans);
+        }
+        plans.put(key, plan);
+        return plan;
+    }
+
+    void addQueryCache(QueryCache queryCache) {
+        queryCaches.add(queryCache);
+    }
+
+    // Removes cached query results reading this table (or any table if tableName is null)
+    void tableChanged(String tableName) {
+        synchronized (queryCaches) {
+            for (QueryCache queryCache : queryCaches) {
+                if (tableName == null) {
+                    queryCache.clear();
+                } else {
+                    queryCache.invalidate(tableName);
+                }
+            }
+        }
+    }
+
+    // Tables named in the SQL which we know about - QueryCache.ANY_TABLE if none are found
+    Set<String> getTableNames(String sql) {
+        Set<String> tables = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        int start = -1;
+        for (int j = 0; j <= sql.length(); j++) {
+            char c = j < sql.length() ? sql.charAt(j) : ' ';
+            boolean nameCharacter = Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' ||
+                    extraNameCharacters != null && extraNameCharacters.indexOf(c) >= 0;
+            if (nameCharacter && start < 0) {
+                start = j;
+            } else if (!nameCharacter && start >= 0) {
+                String name = sql.substring(start, j);
+                if (tableNames.contains(name)) {
+                    tables.add(name);
+                }
+                start = -1;
+            }
+        }
+        if (tables.isEmpty()) {
+            tables.add(QueryCache.ANY_TABLE);
+        }
+        return tables;
+    }
+
     <T> String getTableName(Class<T> objectClass) {
 
         if (tableMap.containsKey(objectClass)) {
@@ -0,0 +1,154 @@
+package net.sf.persism;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL with named parameters (:name) parsed into SQL with ? and the parameter name for each ?.
+ * Parsed once per SQL string and cached by MetaData.getNamedSql.
+ * <p>
+ * Names start with a letter or underscore followed by letters, digits or underscores. Text in quotes ('...' and
+ * "..."), comments (-- and /* *&#47;) and PostgreSQL casts (::type) are left alone. The same name can appear more than once.
+ */
+final class NamedSql {
+
+    final String sql;
+    final String[] names;
+
+    // properties matching the names for the last bean class bound
+    private volatile BeanProperties beanProperties;
+
+    private NamedSql(String sql, String[] names) {
+        this.sql = sql;
+        this.names = names;
+    }
+
+    static NamedSql parse(String namedSql) {
+        StringBuilder sb = new StringBuilder(namedSql.length());
+        List<String> names = new ArrayList<>();
+
+        int length = namedSql.length();
+        int j = 0;
+        while (j < length) {
+            char c = namedSql.charAt(j);
+            if (c == '\'' || c == '"') {
+                int end = namedSql.indexOf(c, j + 1);
+                end = end < 0 ? length : end + 1;
+                sb.append(namedSql, j, end);
+                j = end;
+            } else if (c == '-' && j + 1 < length && namedSql.charAt(j + 1) == '-') {
+                int end = namedSql.indexOf('\n', j);
+                end = end < 0 ? length : end + 1;
+                sb.append(namedSql, j, end);
+                j = end;
+            } else if (c == '/' && j + 1 < length && namedSql.charAt(j + 1) == '*') {
+                int end = namedSql.indexOf("*/", j + 2);
+                end = end < 0 ? length : end + 2;
+                sb.append(namedSql, j, end);
+                j = end;
+            } else if (c == ':' && j + 1 < length && namedSql.charAt(j + 1) == ':') {
+                sb.append("::");
+                j += 2;
+            } else if (c == ':' && j + 1 < length && isNameStart(namedSql.charAt(j + 1))) {
+                int end = j + 2;
+                while (end < length && isNamePart(namedSql.charAt(end))) {
+                    end++;
+                }
+                names.add(namedSql.substring(j + 1, end));
+                sb.append('?');
+                j = end;
+            } else {
+                sb.append(c);
+                j++;
+            }
+        }
+        return new NamedSql(sb.toString(), names.toArray(new String[0]));
+    }
+
+    /**
+     * @param values      Map of values by name or a data object with properties matching the names (ignoring case)
+     * @param fieldAccess read data object fields directly - see Session.setFieldAccess
+     * @return parameters for the ? in order
+     */
+    Object[] bind(Object values, boolean fieldAccess) {
+        Object[] parameters = new Object[names.length];
+        if (values instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) values;
+            for (int j = 0; j < names.length; j++) {
+                if (!map.containsKey(names[j])) {
+                    throw new PersismException("No value for parameter :" + names[j] + " in " + sql);
+                }
+                parameters[j] = map.get(names[j]);
+            }
+        } else {
+            PropertyInfo[] properties = getProperties(values.getClass());
+            for (int j = 0; j < names.length; j++) {
+                parameters[j] = properties[j].getValue(values, fieldAccess);
+            }
+        }
+        return parameters;
+    }
+
+    private PropertyInfo[] getProperties(Class<?> beanClass) {
+        BeanProperties bp = beanProperties;
+        if (bp != null && bp.beanClass == beanClass) {
+            return bp.properties;
+        }
+
+        // Only a getter (or record accessor) is needed to read a parameter so read only and calculated properties
+        // can be bound too. MetaData.getPropertyInfo drops properties without a setter since they are not columns.
+        boolean record = MetaData.getRecordComponents(beanClass) != null;
+        PropertyInfo[] properties = new PropertyInfo[names.length];
+        for (int j = 0; j < names.length; j++) {
+            properties[j] = findProperty(beanClass, names[j], record);
+            if (properties[j] == null) {
+                throw new PersismException("No property for parameter :" + names[j] + " in " + beanClass);
+            }
+        }
+        beanProperties = new BeanProperties(beanClass, properties);
+        return properties;
+    }
+
+    private static PropertyInfo findProperty(Class<?> beanClass, String name, boolean record) {
+        for (Method method : beanClass.getMethods()) {
+            if (method.getParameterCount() > 0 || method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String methodName = method.getName();
+            if (methodName.equalsIgnoreCase("get" + name) && !"getClass".equals(methodName) ||
+                    methodName.equalsIgnoreCase("is" + name) ||
+                    record && methodName.equalsIgnoreCase(name)) {
+
+                PropertyInfo propertyInfo = new PropertyInfo();
+                propertyInfo.propertyName = name.toLowerCase();
+                propertyInfo.propertyType = method.getReturnType();
+                propertyInfo.getter = method;
+                propertyInfo.reader = Accessors.getter(method);
+                MetaData.determineFieldAccessors(beanClass, propertyInfo);
+                return propertyInfo;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static final class BeanProperties {
+        final Class<?> beanClass;
+        final PropertyInfo[] properties;
+
+        BeanProperties(Class<?> beanClass, PropertyInfo[] properties) {
+            this.beanClass = beanClass;
+            this.properties = properties;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of values without a primitive representation (dates, decimals, booleans, UUIDs etc.) read with
+ * ResultSet.getObject. Blobs are read as byte arrays.
+ *
+ * @see ColumnarResult
+ */
+public final class ObjectVector extends ColumnVector {
+
+    private final Types columnType;
+    private Object[] values;
+
+    ObjectVector(int capacity, Types columnType) {
+        values = new Object[capacity];
+        this.columnType = columnType;
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return the value at index or null
+     */
+    @Override
+    public Object getObject(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    void add(Object value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(size));
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        Object value;
+        if (columnType == Types.BlobType || columnType == Types.ByteArrayType) {
+            value = rs.getBytes(column);
+        } else {
+            value = rs.getObject(column);
+        }
+        add(value);
+        if (value == null) {
+            setNull(size - 1);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+}
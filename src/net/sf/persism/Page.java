@@ -0,0 +1,50 @@
+package net.sf.persism;
+
+import java.util.List;
+
+/**
+ * Page of objects read with Session.page in primary key order.
+ *
+ * @param <T> Type of objects
+ * @see PageRequest
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextToken;
+    private final int size;
+
+    Page(List<T> items, String nextToken, int size) {
+        this.items = items;
+        this.nextToken = nextToken;
+        this.size = size;
+    }
+
+    /**
+     * @return objects of this page
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return true if there are more objects after this page
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    /**
+     * @return continuation token for the next page or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return request for the next page with the same size or null if this is the last page
+     */
+    public PageRequest next() {
+        return nextToken != null ? PageRequest.after(nextToken, size) : null;
+    }
+}
@@ -0,0 +1,171 @@
+package net.sf.persism;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Page of objects to read with Session.page - the first page or the page after a continuation token.
+ * <p>
+ * The continuation token (see Page.getNextToken) holds the primary key values of the last object of the previous page
+ * as text so it can be passed to a client and back. Supported primary key types are integral numbers, BigDecimal,
+ * BigInteger, floating point numbers, String, Character, UUID, byte arrays, Date, Timestamp, LocalDate and LocalDateTime.
+ *
+ * @see Page
+ */
+public final class PageRequest {
+
+    private final int size;
+    private final String token;
+
+    private PageRequest(int size, String token) {
+        if (size <= 0) {
+            throw new PersismException("size should be more than 0: " + size);
+        }
+        this.size = size;
+        this.token = token;
+    }
+
+    /**
+     * @param size number of objects per page
+     * @return request for the first page
+     */
+    public static PageRequest first(int size) {
+        return new PageRequest(size, null);
+    }
+
+    /**
+     * @param token continuation token from Page.getNextToken or null for the first page
+     * @param size  number of objects per page
+     * @return request for the page after the token
+     */
+    public static PageRequest after(String token, int size) {
+        return new PageRequest(size, token);
+    }
+
+    /**
+     * @return number of objects per page
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return continuation token or null for the first page
+     */
+    public String getToken() {
+        return token;
+    }
+
+    // type tag (one character) and Base64 value for each primary key separated by periods
+    static String encode(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            String tag;
+            String text;
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                tag = "L";
+                text = value.toString();
+            } else if (value instanceof BigDecimal) {
+                tag = "N";
+                text = value.toString();
+            } else if (value instanceof BigInteger) {
+                tag = "I";
+                text = value.toString();
+            } else if (value instanceof Double || value instanceof Float) {
+                tag = "F";
+                text = value.toString();
+            } else if (value instanceof String || value instanceof Character) {
+                tag = "S";
+                text = value.toString();
+            } else if (value instanceof UUID) {
+                tag = "U";
+                text = value.toString();
+            } else if (value instanceof byte[]) {
+                tag = "B";
+                text = Base64.getUrlEncoder().withoutPadding().encodeToString((byte[]) value);
+            } else if (value instanceof Timestamp) {
+                tag = "T";
+                text = ((Timestamp) value).getTime() + ":" + ((Timestamp) value).getNanos();
+            } else if (value instanceof Date) {
+                tag = "D";
+                text = String.valueOf(((Date) value).getTime());
+            } else if (value instanceof LocalDateTime) {
+                tag = "A";
+                text = value.toString();
+            } else if (value instanceof LocalDate) {
+                tag = "Y";
+                text = value.toString();
+            } else {
+                throw new PersismException("Primary key type not supported for paging: " + (value == null ? null : value.getClass()));
+            }
+            if (sb.length() > 0) {
+                sb.append('.');
+            }
+            sb.append(tag).append(Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return sb.toString();
+    }
+
+    static Object[] decode(String token) {
+        String[] parts = token.split("\\.");
+        Object[] values = new Object[parts.length];
+        try {
+            for (int j = 0; j < parts.length; j++) {
+                String part = parts[j];
+                String tag = part.substring(0, 1);
+                String text = new String(Base64.getUrlDecoder().decode(part.substring(1)), StandardCharsets.UTF_8);
+                switch (tag) {
+                    case "L":
+                        values[j] = Long.valueOf(text);
+                        break;
+                    case "N":
+                        values[j] = new BigDecimal(text);
+                        break;
+                    case "I":
+                        values[j] = new BigInteger(text);
+                        break;
+                    case "F":
+                        values[j] = Double.valueOf(text);
+                        break;
+                    case "S":
+                        values[j] = text;
+                        break;
+                    case "U":
+                        values[j] = UUID.fromString(text);
+                        break;
+                    case "B":
+                        values[j] = Base64.getUrlDecoder().decode(text);
+                        break;
+                    case "T":
+                        String[] time = text.split(":");
+                        Timestamp timestamp = new Timestamp(Long.parseLong(time[0]));
+                        timestamp.setNanos(Integer.parseInt(time[1]));
+                        values[j] = timestamp;
+                        break;
+                    case "D":
+                        values[j] = new Date(Long.parseLong(text));
+                        break;
+                    case "A":
+                        values[j] = LocalDateTime.parse(text);
+                        break;
+                    case "Y":
+                        values[j] = LocalDate.parse(text);
+                        break;
+                    default:
+                        throw new PersismException("Invalid page token: " + token);
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new PersismException("Invalid page token: " + token, e);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,199 @@
+package net.sf.persism;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Reads all the rows of a table by splitting the primary key range into partitions which are queried concurrently,
+ * each on its own connection from a DataSource. Use this to reload large tables where a single connection is
+ * bound by latency.
+ * <p>
+ * The class must map a table with a single integer primary key (integer types or NUMERIC/DECIMAL without a scale
+ * up to 18 digits). The key range comes from a SELECT MIN(pk), MAX(pk) probe and is split into equal disjoint ranges
+ * so partitions are only balanced if the keys are evenly spread (identity columns for example).
+ * <pre>{@code
+ * List<Invoice> invoices = new ParallelQuery(dataSource, 4).query(Invoice.class);
+ * }</pre>
+ */
+public final class ParallelQuery {
+
+    private static final Log log = Log.getLogger(ParallelQuery.class);
+
+    private final DataSource dataSource;
+    private final int partitions;
+    private final ExecutorService executor;
+
+    /**
+     * Query with a new thread pool of partitions threads for each query.
+     *
+     * @param dataSource source of the connections - one per partition plus one for the probe
+     * @param partitions number of key ranges to query concurrently
+     */
+    public ParallelQuery(DataSource dataSource, int partitions) {
+        this(dataSource, partitions, null);
+    }
+
+    /**
+     * @param dataSource source of the connections - one per partition plus one for the probe
+     * @param partitions number of key ranges to query concurrently
+     * @param executor   runs the partition queries. It is not shut down.
+     */
+    public ParallelQuery(DataSource dataSource, int partitions, ExecutorService executor) {
+        if (partitions < 1) {
+            throw new PersismException("partitions should be at least 1: " + partitions);
+        }
+        this.dataSource = dataSource;
+        this.partitions = partitions;
+        this.executor = executor;
+    }
+
+    /**
+     * Read all rows of the table mapped by the class.
+     *
+     * @param objectClass data class mapping a table with a single integer primary key
+     * @param <T>         Return type
+     * @return the objects of all partitions in primary key range order (not ordered within a partition)
+     * @throws PersismException if the class has no single integer primary key or any partition fails
+     */
+    public <T> List<T> query(Class<T> objectClass) throws PersismException {
+        String sql;
+        List<long[]> ranges;
+        try (Session session = new Session(getConnection())) {
+            MetaData metaData = session.getMetaData();
+            Connection connection = session.getConnection();
+
+            List<String> primaryKeys = metaData.getPrimaryKeys(objectClass, connection);
+            if (primaryKeys.size() != 1) {
+                throw new PersismException("Cannot perform parallel query - " + metaData.getTableName(objectClass) + " should have a single primary key.");
+            }
+            ColumnInfo columnInfo = metaData.getColumns(objectClass, connection).get(primaryKeys.get(0));
+            if (!isIntegral(columnInfo)) {
+                throw new PersismException("Cannot perform parallel query - " + metaData.getTableName(objectClass) + " primary key " + columnInfo.columnName + " is not an integer up to 18 digits.");
+            }
+
+            ColumnarResult range = session.queryColumnar(metaData.getKeyRangeStatement(objectClass, connection));
+            if (range.getRowCount() == 0 || range.isNull(0, 0)) {
+                return new ArrayList<>(0);
+            }
+            ranges = split(range.getLong(0, 0), range.getLong(0, 1), partitions);
+            sql = metaData.getKeyRangeSelectStatement(objectClass, connection);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("query " + objectClass + " in " + ranges.size() + " partitions: " + sql);
+        }
+
+        List<Callable<List<T>>> tasks = new ArrayList<>(ranges.size());
+        for (long[] keys : ranges) {
+            tasks.add(() -> {
+                try (Session session = new Session(getConnection())) {
+                    return session.query(objectClass, sql, keys[0], keys[1]);
+                }
+            });
+        }
+
+        ExecutorService service = executor != null ? executor : Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<List<T>> results = new ArrayList<>(tasks.size());
+            int size = 0;
+            for (Future<List<T>> future : service.invokeAll(tasks)) {
+                List<T> list = future.get();
+                size += list.size();
+                results.add(list);
+            }
+
+            List<T> merged = new ArrayList<>(size);
+            for (List<T> list : results) {
+                merged.addAll(list);
+            }
+            return merged;
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PersismException) {
+                throw (PersismException) cause;
+            }
+            throw new PersismException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            if (executor == null) {
+                service.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Read all rows of the table mapped by the class. The partitions are read as with query and then streamed in parallel.
+     *
+     * @param objectClass data class mapping a table with a single integer primary key
+     * @param <T>         Return type
+     * @return parallel Stream of the objects
+     * @throws PersismException if the class has no single integer primary key or any partition fails
+     */
+    public <T> Stream<T> stream(Class<T> objectClass) throws PersismException {
+        return query(objectClass).parallelStream();
+    }
+
+    // Inclusive key ranges of about equal size from min to max - fewer than partitions if there are fewer keys.
+    // Offsets from min are unsigned so a range spanning more than Long.MAX_VALUE keys does not overflow.
+    static List<long[]> split(long min, long max, int partitions) {
+        long span = max - min;
+        long count = partitions;
+        if (Long.compareUnsigned(span, count) < 0) {
+            count = span + 1;
+        }
+        long step = Long.divideUnsigned(span, count) + 1;
+
+        List<long[]> ranges = new ArrayList<>((int) count);
+        for (long offset = 0; Long.compareUnsigned(offset, span) <= 0; offset += step) {
+            long low = min + offset;
+            long high = Long.compareUnsigned(span - offset, step - 1) <= 0 ? max : low + step - 1;
+            ranges.add(new long[]{low, high});
+            if (high == max) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    // Keys are split as longs: integer types or NUMERIC/DECIMAL without a scale up to 18 digits
+    private static boolean isIntegral(ColumnInfo columnInfo) {
+        if (columnInfo.columnType == null) {
+            return false;
+        }
+        switch (columnInfo.columnType) {
+            case byteType:
+            case ByteType:
+            case shortType:
+            case ShortType:
+            case integerType:
+            case IntegerType:
+            case longType:
+            case LongType:
+                return true;
+            case BigDecimalType:
+                return columnInfo.scale == 0 && columnInfo.precision > 0 && columnInfo.precision <= 18;
+            default:
+                return false;
+        }
+    }
+
+    private Connection getConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new PersismException(e.getMessage(), e);
+        }
+    }
+}
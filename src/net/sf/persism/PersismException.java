@@ -7,11 +7,11 @@ package net.sf.persism;
  * @since 9/8/11 6:41 AM
  *
  */
-public final class PersismException extends RuntimeException {
+public class PersismException extends RuntimeException {
 
     private static final long serialVersionUID = 3629404706918664936L;
 
-    private PersismException() {
+    PersismException() {
     }
 
     public PersismException(String message) {
@@ -0,0 +1,73 @@
+package net.sf.persism;
+
+import net.sf.persism.annotations.Column;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the properties of a class by normalized name used to match result set columns to properties.
+ * <p>
+ * A column matches a property if the normalized column name equals the property name (lower case without
+ * underscores) ignoring case, or if the column label equals the Column annotation name ignoring case. Keys are
+ * folded the same way String.equalsIgnoreCase compares characters so each column needs one lookup per map.
+ * If more than one property matches, the first one in property order wins.
+ */
+final class PropertyIndex {
+
+    private final PropertyInfo[] properties;
+
+    // folded key -> index of the first matching property
+    private final Map<String, Integer> names;
+    private final Map<String, Integer> columnNames;
+
+    PropertyIndex(Collection<PropertyInfo> properties) {
+        this.properties = properties.toArray(new PropertyInfo[0]);
+        names = new HashMap<>(this.properties.length * 2);
+        columnNames = new HashMap<>(8);
+
+        for (int j = 0; j < this.properties.length; j++) {
+            PropertyInfo propertyInfo = this.properties[j];
+            names.putIfAbsent(fold(propertyInfo.propertyName.toLowerCase().replace("_", "")), j);
+
+            Column column = (Column) propertyInfo.getAnnotation(Column.class);
+            if (column != null) {
+                columnNames.putIfAbsent(fold(column.name()), j);
+            }
+        }
+    }
+
+    /**
+     * @param columnName normalized column name (see MetaData)
+     * @param label      column label as returned by the result set
+     * @return matching property or null
+     */
+    PropertyInfo find(String columnName, String label) {
+        Integer byName = names.get(fold(columnName));
+        Integer byColumn = columnNames.isEmpty() ? null : columnNames.get(fold(label));
+        if (byName == null && byColumn == null) {
+            return null;
+        }
+        if (byName == null || byColumn != null && byColumn < byName) {
+            return properties[byColumn];
+        }
+        return properties[byName];
+    }
+
+    // String.equalsIgnoreCase compares characters with toUpperCase and then toLowerCase
+    static String fold(String value) {
+        char[] chars = null;
+        for (int j = 0; j < value.length(); j++) {
+            char c = value.charAt(j);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[j] = folded;
+            }
+        }
+        return chars == null ? value : new String(chars);
+    }
+}
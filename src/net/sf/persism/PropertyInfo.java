@@ -1,9 +1,12 @@
 package net.sf.persism;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Created by IntelliJ IDEA.
@@ -14,21 +17,60 @@ import java.util.Map;
 final class PropertyInfo {
 
     String propertyName;
+    Class<?> propertyType;
     Method getter;
     Method setter;
 
+    // accessors built from getter and setter - see Accessors
+    Function<Object, Object> reader;
+    BiConsumer<Object, Object> writer;
+
+    // field backing the property and its accessors for field access - see FieldAccessors. Null if there's no matching field.
+    Field field;
+    Function<Object, Object> fieldReader;
+    BiConsumer<Object, Object> fieldWriter;
+
+    // Lazy annotated property - its type is LazyValue holding a lazyType value. See MetaData.determineLazy
+    boolean lazy;
+    Class<?> lazyType;
+
     Map<Class<? extends Annotation>, Annotation> annotations = new HashMap<Class<? extends Annotation>, Annotation>(4);
 
     Annotation getAnnotation(Class<? extends  Annotation> annotationClass) {
         return annotations.get(annotationClass);
     }
 
+    Object getValue(Object object) {
+        return reader.apply(object);
+    }
+
+    void setValue(Object object, Object value) {
+        writer.accept(object, value);
+    }
+
+    Object getValue(Object object, boolean fieldAccess) {
+        if (fieldAccess && fieldReader != null) {
+            return fieldReader.apply(object);
+        }
+        return reader.apply(object);
+    }
+
+    void setValue(Object object, Object value, boolean fieldAccess) {
+        if (fieldAccess && fieldWriter != null) {
+            fieldWriter.accept(object, value);
+        } else {
+            writer.accept(object, value);
+        }
+    }
+
     @Override
     public String toString() {
         return "PropertyInfo{" +
                 "propertyName='" + propertyName + '\'' +
+                ", propertyType=" + propertyType +
                 ", getter=" + getter +
                 ", setter=" + setter +
+                ", field=" + field +
                 ", annotations=" + annotations +
                 '}';
     }
@@ -0,0 +1,254 @@
+package net.sf.persism;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of query results for Session.query(Class, String, Object...) keyed by class, SQL and parameters.
+ * Set it on one or more Sessions with Session.setQueryCache.
+ * <p>
+ * Entries are tagged with the tables named in the SQL. Inserts, updates and deletes through any Session using the
+ * cache for the same database remove the entries for the changed table. Changes made outside of Persism are not
+ * seen until the entry expires. Results are copied into the cache and copied again for each hit so callers can
+ * modify the objects returned. Immutable classes (records etc.) are shared. Lazy properties of the copies get a new
+ * LazyValue loading with the Session of the hit. Results with Reader or InputStream values are not cached as the
+ * streams can only be read once.
+ * <p>
+ * This class is thread safe.
+ */
+public final class QueryCache {
+
+    // tag used for queries where we could not find any table name - removed by any change
+    static final String ANY_TABLE = "*";
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+
+    // least recently used order
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // incremented by each invalidation so results read before a change are not stored after it
+    private long generation;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxSize    maximum number of query results cached - the least recently used result is removed when full.
+     * @param timeToLive time a result stays cached or 0 to keep results until they are invalidated or removed.
+     * @param unit       unit for timeToLive
+     */
+    public QueryCache(int maxSize, long timeToLive, TimeUnit unit) {
+        if (maxSize <= 0) {
+            throw new PersismException("maxSize should be more than 0: " + maxSize);
+        }
+        if (timeToLive < 0) {
+            throw new PersismException("timeToLive should be 0 or more: " + timeToLive);
+        }
+        this.maxSize = maxSize;
+        timeToLiveNanos = unit.toNanos(timeToLive);
+    }
+
+    /**
+     * Remove all cached results.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * @return number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of queries answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of queries not found in the cache (or expired).
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // copies of the cached result or null - Lazy properties are loaded with the session
+    synchronized <T> List<T> get(Session session, MetaData metaData, Class<T> objectClass, String sql, Object[] parameters) {
+        Key key = new Key(metaData, objectClass, sql, parameters);
+        Entry entry = entries.get(key);
+        if (entry != null && timeToLiveNanos > 0 && System.nanoTime() - entry.created > timeToLiveNanos) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        // entries are keyed by objectClass so the list holds objects read as T (boxed for primitive classes)
+        @SuppressWarnings("unchecked")
+        List<T> copy = (List<T>) copy(entry.list, session);
+        return copy;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    // Stores a copy of the result unless a table was changed since the query started (generation)
+    synchronized void put(MetaData metaData, Class<?> objectClass, String sql, Object[] parameters, List<?> list, Set<String> tables, long generation) {
+        if (generation != this.generation || isStreamed(objectClass)) {
+            return;
+        }
+        entries.put(new Key(metaData, objectClass, sql, parameters.clone()), new Entry(copy(list, null), tables, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            Iterator<Entry> it = entries.values().iterator();
+            it.next();
+            it.remove();
+        }
+    }
+
+    synchronized void invalidate(String tableName) {
+        generation++;
+        entries.values().removeIf(entry -> entry.tables.contains(tableName) || entry.tables.contains(ANY_TABLE));
+    }
+
+    // Reader and InputStream values (or properties) cannot be copied
+    private static boolean isStreamed(Class<?> objectClass) {
+        Types type = Types.getType(objectClass);
+        if (type != null) {
+            return type == Types.ReaderType || type == Types.InputStreamType;
+        }
+        for (PropertyInfo propertyInfo : MetaData.getPropertyInfo(objectClass)) {
+            type = Types.getType(propertyInfo.propertyType);
+            if (type == Types.ReaderType || type == Types.InputStreamType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Object> copy(Collection<?> list, Session session) {
+        List<Object> result = new ArrayList<>(list.size());
+        for (Object object : list) {
+            result.add(copy(object, session));
+        }
+        return result;
+    }
+
+    // Lazy properties are left null without a session
+    private static Object copy(Object object, Session session) {
+        if (object == null) {
+            return null;
+        }
+        Class<?> objectClass = object.getClass();
+        if (Types.getType(objectClass) != null) {
+            return copyValue(object);
+        }
+        if (MetaData.getConstructorInfo(objectClass) != null) {
+            // immutable
+            return object;
+        }
+        try {
+            Object copy = MetaData.newInstance(objectClass);
+            boolean lazy = false;
+            for (PropertyInfo propertyInfo : MetaData.getPropertyInfo(objectClass)) {
+                if (propertyInfo.lazy) {
+                    // LazyValues load with the Session which read the object - copies get their own
+                    lazy = true;
+                } else if (propertyInfo.reader != null && propertyInfo.writer != null) {
+                    Object value = propertyInfo.getValue(object);
+                    if (value != null) {
+                        propertyInfo.setValue(copy, copyValue(value));
+                    }
+                }
+            }
+            if (lazy && session != null) {
+                session.setLazyValues(copy);
+            }
+            if (copy instanceof Persistable) {
+                ((Persistable) copy).saveReadState();
+            }
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new PersismException(e.getMessage(), e);
+        }
+    }
+
+    // copy of mutable values - dates and byte arrays
+    private static Object copyValue(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        if (value instanceof char[]) {
+            return ((char[]) value).clone();
+        }
+        if (value instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer) value;
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return ByteBuffer.wrap(bytes);
+        }
+        return value;
+    }
+
+    private static final class Entry {
+        final List<Object> list;
+        final Set<String> tables;
+        final long created;
+
+        Entry(List<Object> list, Set<String> tables, long created) {
+            this.list = list;
+            this.tables = tables;
+            this.created = created;
+        }
+    }
+
+    private static final class Key {
+        final MetaData metaData;
+        final Class<?> objectClass;
+        final String sql;
+        final Object[] parameters;
+
+        Key(MetaData metaData, Class<?> objectClass, String sql, Object[] parameters) {
+            this.metaData = metaData;
+            this.objectClass = objectClass;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return metaData == key.metaData && objectClass == key.objectClass && sql.equals(key.sql) && Arrays.deepEquals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * objectClass.hashCode() + sql.hashCode()) * 31 + Arrays.deepHashCode(parameters);
+        }
+    }
+}
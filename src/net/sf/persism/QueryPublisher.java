@@ -0,0 +1,162 @@
+package net.sf.persism;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher returned by Session.publish. Each subscription runs the query on a Cursor when items are first
+ * requested and reads a row for each item requested so only the rows fetched by the driver are held in memory
+ * however slow the subscriber is. The ResultSet fetch size follows the outstanding demand.
+ * <p>
+ * Rows are read on the thread calling request. A request from inside onNext only adds to the demand and the loop
+ * already running sends the items (trampolining) so the stack does not grow with the number of rows.
+ *
+ * @param <T> Type of objects published
+ */
+final class QueryPublisher<T> implements Flow.Publisher<T> {
+
+    // largest fetch size used for unbounded demand unless the Session has a fetch size
+    static final int MAX_FETCH_SIZE = 1000;
+
+    private final Session session;
+    private final Class<T> objectClass;
+    private final String sql;
+    private final Object[] parameters;
+
+    QueryPublisher(Session session, Class<T> objectClass, String sql, Object[] parameters) {
+        this.session = session;
+        this.objectClass = objectClass;
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        subscriber.onSubscribe(new QuerySubscription(subscriber));
+    }
+
+    private final class QuerySubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // only used by the thread in drain
+        private Cursor<T> cursor;
+        private int fetchSize;
+        private boolean done;
+
+        QuerySubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request should be positive: " + n);
+            } else {
+                long current;
+                long next;
+                do {
+                    current = demand.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!demand.compareAndSet(current, next));
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        // sends items up to the current demand
+        private void emit() {
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                long requested = demand.get();
+                if (requested == 0) {
+                    return;
+                }
+                if (cursor == null) {
+                    cursor = session.cursor(objectClass, sql, parameters);
+                }
+                alignFetchSize(requested);
+
+                long sent = 0;
+                while (sent != requested) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    if (!cursor.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(cursor.next());
+                    sent++;
+                }
+                if (requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-sent);
+                }
+            } catch (PersismException e) {
+                finish();
+                subscriber.onError(e);
+            } catch (RuntimeException | Error e) {
+                // thrown by the subscriber
+                finish();
+                throw e;
+            }
+        }
+
+        private void alignFetchSize(long requested) {
+            int limit = session.getFetchSize() > 0 ? session.getFetchSize() : MAX_FETCH_SIZE;
+            int rows = (int) Math.min(requested, limit);
+            if (rows != fetchSize) {
+                fetchSize = rows;
+                cursor.setFetchSize(rows);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package net.sf.persism;
+
+/**
+ * Receives each object read by Session.query(Class, RowHandler, String, Object...) as the rows are read.
+ * Objects are not kept in a list and Persistable objects do not save their read state so scanning a large
+ * result only holds one row at a time.
+ * <p>
+ * With reuseInstance, one instance of the data class is created and filled again for each row so don't keep
+ * references to it after handle returns. Immutable classes (records etc.) and primitive types always get a new
+ * object per row.
+ *
+ * @param <T> Type of objects handled
+ */
+public abstract class RowHandler<T> {
+
+    private final boolean reuseInstance;
+
+    /**
+     * Handler receiving a new object for each row.
+     */
+    protected RowHandler() {
+        this(false);
+    }
+
+    /**
+     * @param reuseInstance true to receive the same instance filled with the values of each row.
+     */
+    protected RowHandler(boolean reuseInstance) {
+        this.reuseInstance = reuseInstance;
+    }
+
+    /**
+     * Called for each row in result set order.
+     *
+     * @param object object read from the row
+     */
+    public abstract void handle(T object);
+
+    /**
+     * @return true if the same instance is reused for each row.
+     */
+    public final boolean isReuseInstance() {
+        return reuseInstance;
+    }
+}
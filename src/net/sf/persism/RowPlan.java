@@ -0,0 +1,40 @@
+package net.sf.persism;
+
+/**
+ * Compiled plan used to read rows from a ResultSet into objects of a class.
+ * <p>
+ * A plan is built once per result set shape (column labels and types) and class by MetaData.getRowPlan.
+ * It resolves the column index, property and column type once so that reading a row does not need to
+ * call ResultSetMetaData or look up properties by name. Entries are parallel arrays in result set column order
+ * and only include columns mapped to a property. Immutable classes (see ConstructorInfo) also get the constructor
+ * parameter for each column.
+ */
+final class RowPlan {
+
+    // result set column index (1 based)
+    final int[] columns;
+    final String[] columnNames;
+    final PropertyInfo[] properties;
+
+    // null if we could not match the SQL type - the value is read with getObject and not converted
+    final Types[] columnTypes;
+
+    // for immutable classes - the constructor and the constructor parameter index for each column (-1 if set with a setter)
+    final ConstructorInfo constructor;
+    final int[] parameters;
+
+    // Lazy columns and properties which get a LazyValue instead of being read
+    final String[] lazyColumns;
+    final PropertyInfo[] lazyProperties;
+
+    RowPlan(int size, ConstructorInfo constructor, String[] lazyColumns, PropertyInfo[] lazyProperties) {
+        columns = new int[size];
+        columnNames = new String[size];
+        properties = new PropertyInfo[size];
+        columnTypes = new Types[size];
+        this.constructor = constructor;
+        parameters = constructor != null ? new int[size] : null;
+        this.lazyColumns = lazyColumns;
+        this.lazyProperties = lazyProperties;
+    }
+}
@@ -0,0 +1,14 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+
+/**
+ * Reads the current row of a ResultSet as an object of the queried class. See Session.rowReader.
+ *
+ * @param <T> Type read
+ */
+@FunctionalInterface
+interface RowReader<T> {
+
+    T read(ResultSet rs) throws Exception;
+}
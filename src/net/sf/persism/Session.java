@@ -3,20 +3,25 @@ package net.sf.persism;
 import net.sf.persism.annotations.NotTable;
 
 import java.io.*;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.*;
 import java.util.*;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Performs various read and write operations in the database.
+ * <p>
+ * Reader and InputStream properties read from CLOB and BLOB columns belong to the caller who should close them.
+ * Values larger than 8K are held in a temporary file deleted on close, or when the JVM exits if never closed.
  *
  * @author Dan Howard
  * @since 1/8/2021
@@ -29,7 +34,33 @@ public final class Session implements AutoCloseable {
 
     private MetaData metaData;
 
-    private static final List<String> warnings = new ArrayList<>(32);
+    private boolean fieldAccess;
+
+    private int fetchSize;
+
+    // null unless enabled with setStatementCacheSize
+    private StatementCache statementCache;
+
+    private QueryCache queryCache;
+
+    // null unless enabled with setIdentityMapEnabled
+    private IdentityMap identityMap;
+
+    // shared by sessions on other threads (ParallelQuery, AsyncSession)
+    private static final Set<String> warnings = ConcurrentHashMap.newKeySet();
+
+    // CLOB and BLOB reads - chunk used when the driver doesn't report the length or the value is read as a Reader or
+    // InputStream and the largest array we can allocate
+    private static final int STREAM_CHUNK_SIZE = 8192;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    static final String TEMP_FILE_PREFIX = "persism-lob";
+
+    // reusable chunk buffers for Reader and InputStream values - see streamClob
+    private char[] charChunk;
+    private byte[] byteChunk;
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
 
     /**
      * @param connection db connection
@@ -45,6 +76,9 @@ public final class Session implements AutoCloseable {
      */
     @Override
     public void close() {
+        if (statementCache != null) {
+            statementCache.close();
+        }
         if (connection != null) {
             try {
                 connection.close();
@@ -54,6 +88,134 @@ public final class Session implements AutoCloseable {
         }
     }
 
+    /**
+     * Read and write the fields backing the properties of all data objects directly instead of calling their getters and setters.
+     * Properties without a backing field still use the getter and setter. Off by default.
+     * Use the FieldAccess annotation to turn this on for a single class.
+     *
+     * @param fieldAccess true to use field access
+     * @see net.sf.persism.annotations.FieldAccess
+     */
+    public void setFieldAccess(boolean fieldAccess) {
+        this.fieldAccess = fieldAccess;
+    }
+
+    /**
+     * @return true if this session reads and writes fields directly
+     */
+    public boolean isFieldAccess() {
+        return fieldAccess;
+    }
+
+    /**
+     * Hint to the JDBC driver for the number of rows to fetch at a time for queries. 0 (the default) leaves it to the driver.
+     * Use this with stream or cursor to read large results - note that some drivers (PostgreSQL for example)
+     * only use it when auto commit is off.
+     *
+     * @param fetchSize number of rows or 0
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new PersismException("fetchSize should be 0 or more: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return number of rows fetched at a time for queries or 0 if left to the JDBC driver
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Keep up to size prepared statements open for reuse by this session, closing the least recently used one when full.
+     * Statements are keyed by SQL so this helps when the same queries, inserts, updates and deletes run repeatedly.
+     * 0 (the default) turns the cache off and closes the cached statements. Cached statements are closed by close().
+     *
+     * @param size maximum number of cached statements or 0
+     */
+    public void setStatementCacheSize(int size) {
+        if (size < 0) {
+            throw new PersismException("size should be 0 or more: " + size);
+        }
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
+        if (size > 0) {
+            statementCache = new StatementCache(size);
+        }
+    }
+
+    /**
+     * @return number of statements reused from the statement cache since it was enabled.
+     */
+    public long getStatementCacheHits() {
+        return statementCache != null ? statementCache.getHits() : 0;
+    }
+
+    /**
+     * @return number of statements prepared because they were not in the statement cache since it was enabled.
+     */
+    public long getStatementCacheMisses() {
+        return statementCache != null ? statementCache.getMisses() : 0;
+    }
+
+    /**
+     * Cache the results of query(Class, String, Object...) for SELECT statements (and WITH ... SELECT) in the query
+     * cache. Other statements such as stored procedure calls are not cached. The same cache can be shared by Sessions for the same database - inserts, updates and deletes through any of them remove the
+     * cached results for the changed table.
+     *
+     * @param queryCache cache to use or null to stop caching query results
+     * @see QueryCache
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+        if (queryCache != null) {
+            metaData.addQueryCache(queryCache);
+        }
+    }
+
+    /**
+     * @return the query cache used by this session or null
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Keep the data objects read and written by this session by class and primary key. Fetching an object already
+     * in the map by primary key (fetch(Object)) does not query the database, and query and fetch return the mapped
+     * instance instead of the object read from the row. Inserts and updates map the object written and deletes remove it.
+     * Off by default. Streams, cursors and RowHandler queries do not use the identity map.
+     *
+     * @param enabled true to use an identity map. false clears it.
+     */
+    public void setIdentityMapEnabled(boolean enabled) {
+        if (!enabled) {
+            identityMap = null;
+        } else if (identityMap == null) {
+            identityMap = new IdentityMap();
+        }
+    }
+
+    /**
+     * @return true if this session uses an identity map
+     */
+    public boolean isIdentityMapEnabled() {
+        return identityMap != null;
+    }
+
+    /**
+     * Remove all objects from the identity map. Use this to see changes made outside of this session.
+     */
+    public void clearIdentityMap() {
+        if (identityMap != null) {
+            identityMap.clear();
+        }
+    }
+
     private void init(Connection connection) {
 
         // place any DB specific properties here.
@@ -82,22 +244,17 @@ public final class Session implements AutoCloseable {
 
             String updateStatement = null;
             try {
-                updateStatement = metaData.getUpdateStatement(object, connection);
+                updateStatement = metaData.getUpdateStatement(object, connection, fieldAccess);
             } catch (NoChangesDetectedForUpdateException e) {
                 log.info("No properties changed. No update required for Object: " + object + " class: " + object.getClass().getName());
                 return 0;
             }
 
-            st = connection.prepareStatement(updateStatement);
+            st = prepareStatement(updateStatement, null);
 
             // These keys should always be in sorted order.
             Map<String, PropertyInfo> allProperties = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
-            Map<String, PropertyInfo> changedProperties;
-            if (object instanceof Persistable) {
-                changedProperties = metaData.getChangedProperties((Persistable) object, connection);
-            } else {
-                changedProperties = allProperties;
-            }
+            Map<String, PropertyInfo> changedProperties = metaData.getUpdateProperties(object, connection, fieldAccess);
 
             List<Object> params = new ArrayList<>(primaryKeys.size());
             List<ColumnInfo> columnInfos = new ArrayList<>(primaryKeys.size());
@@ -108,7 +265,7 @@ public final class Session implements AutoCloseable {
                 ColumnInfo columnInfo = columns.get(column);
 
                 if (!primaryKeys.contains(column)) {
-                    Object value = allProperties.get(column).getter.invoke(object);
+                    Object value = getWriteValue(allProperties.get(column), object);
 
                     if (value instanceof String) {
                         // check width
@@ -125,7 +282,7 @@ public final class Session implements AutoCloseable {
             }
 
             for (String column : primaryKeys) {
-                params.add(allProperties.get(column).getter.invoke(object));
+                params.add(allProperties.get(column).getValue(object, fieldAccess));
                 columnInfos.add(metaData.getColumns(object.getClass(), connection).get(column));
             }
             assert params.size() == columnInfos.size();
@@ -136,6 +293,9 @@ public final class Session implements AutoCloseable {
             }
             setParameters(st, params.toArray());
             int ret = st.executeUpdate();
+            metaData.tableChanged(metaData.getTableName(object.getClass()));
+            lazyValuesSaved(object, allProperties);
+            mapIdentity(object);
 
             if (object instanceof Persistable) {
                 // Save this object state to later detect changed properties
@@ -149,7 +309,7 @@ public final class Session implements AutoCloseable {
             throw new PersismException(e.getMessage(), e);
 
         } finally {
-            Util.cleanup(st, null);
+            cleanup(st, null);
         }
     }
 
@@ -161,7 +321,7 @@ public final class Session implements AutoCloseable {
      * @throws PersismException When planet of the apes starts happening.
      */
     public int insert(Object object) throws PersismException {
-        String insertStatement = metaData.getInsertStatement(object, connection);
+        String insertStatement = metaData.getInsertStatement(object, connection, fieldAccess);
 
         PreparedStatement st = null;
         ResultSet rs = null;
@@ -171,83 +331,25 @@ public final class Session implements AutoCloseable {
             Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
             Map<String, ColumnInfo> columns = metaData.getColumns(object.getClass(), connection);
 
-            List<String> generatedKeys = new ArrayList<>(1);
-            for (ColumnInfo column : columns.values()) {
-                if (column.autoIncrement) {
-                    generatedKeys.add(column.columnName);
-                } else if (metaData.connectionType == ConnectionTypes.PostgreSQL && column.primary && column.hasDefault) {
-                    generatedKeys.add(column.columnName);
-                }
-            }
+            List<String> generatedKeys = getGeneratedKeyColumns(columns);
 
             if (generatedKeys.size() > 0) {
                 String[] keyArray = generatedKeys.toArray(new String[0]);
-                st = connection.prepareStatement(insertStatement, keyArray);
+                st = prepareStatement(insertStatement, keyArray);
             } else {
-                st = connection.prepareStatement(insertStatement);
+                st = prepareStatement(insertStatement, null);
             }
 
-            boolean tableHasDefaultColumnValues = false;
-
             List<Object> params = new ArrayList<>(columns.size());
-            List<ColumnInfo> columnInfos = new ArrayList<>(columns.size());
-
-            for (ColumnInfo columnInfo : columns.values()) {
-
-                PropertyInfo propertyInfo = properties.get(columnInfo.columnName);
-                if (!columnInfo.autoIncrement) {
-
-                    if (columnInfo.hasDefault) {
-                        // Do not include if this column has a default and no value has been
-                        // set on it's associated property.
-
-                        if (propertyInfo.getter.getReturnType().isPrimitive()) {
-                            warnNoDuplicates("Property " + propertyInfo.propertyName + " for column " + columnInfo.columnName + " for class " + object.getClass() +
-                                    " should be an Object type to properly detect NULL for defaults (change it from the primitive type to its Boxed version).");
-                        }
-
-                        if (propertyInfo.getter.invoke(object) == null) {
-
-                            if (columnInfo.primary) {
-                                // This is supported with PostgreSQL but otherwise throw this an exception
-                                if (!(metaData.connectionType == ConnectionTypes.PostgreSQL)) {
-                                    throw new PersismException("Non-auto inc generated primary keys are not supported. Please assign your primary key value before performing an insert.");
-                                }
-                            }
-
-                            tableHasDefaultColumnValues = true;
-                            continue;
-                        }
-                    }
-
-                    Object value = propertyInfo.getter.invoke(object);
-
-                    if (value instanceof String) {
-                        // check width
-                        String str = (String) value;
-                        if (str.length() > columnInfo.length) {
-                            str = str.substring(0, columnInfo.length);
-                            log.warn("TRUNCATION with Column: " + columnInfo.columnName + " for table: " + metaData.getTableName(object.getClass()) + ". Old value: \"" + value + "\" New value: \"" + str + "\"");
-                            value = str;
-                        }
-                    }
-                    params.add(value);
-                    columnInfos.add(columnInfo);
-                }
-            }
+            boolean tableHasDefaultColumnValues = addInsertParameters(object, columns, properties, params);
 
             // https://forums.oracle.com/forums/thread.jspa?threadID=879222
             // http://download.oracle.com/javase/1.4.2/docs/guide/jdbc/getstart/statement.html
             //int ret = st.executeUpdate(insertStatement, Statement.RETURN_GENERATED_KEYS);
-            assert params.size() == columnInfos.size();
-            for (int j = 0; j < params.size(); j++) {
-                if (params.get(j) != null) {
-                    params.set(j, convert(params.get(j), columnInfos.get(j).columnType.getJavaType(), columnInfos.get(j).columnName));
-                }
-            }
-
             setParameters(st, params.toArray());
             int ret = st.executeUpdate();
+            metaData.tableChanged(metaData.getTableName(object.getClass()));
+            lazyValuesSaved(object, properties);
             if (log.isDebugEnabled()) {
                 log.debug("insert ret: " + ret);
             }
@@ -257,18 +359,23 @@ public final class Session implements AutoCloseable {
                 for (String column : generatedKeys) {
                     if (rs.next()) {
 
-                        Method setter = properties.get(column).setter;
-                        Object value = getTypedValueReturnedFromGeneratedKeys(setter.getParameterTypes()[0], rs);
+                        PropertyInfo propertyInfo = properties.get(column);
+                        Object value = getTypedValueReturnedFromGeneratedKeys(propertyInfo.propertyType, rs, 1);
 
                         if (log.isDebugEnabled()) {
                             log.debug(column + " generated " + value);
                         }
-                        setter.invoke(object, value);
+                        if (propertyInfo.writer != null) {
+                            propertyInfo.setValue(object, value, fieldAccess);
+                        } else {
+                            warnNoDuplicates("Property " + propertyInfo.propertyName + " for column " + column + " for class " + object.getClass() +
+                                    " has no setter - generated values are not assigned to immutable objects.");
+                        }
                     }
                 }
             }
 
-            if (tableHasDefaultColumnValues) {
+            if (tableHasDefaultColumnValues && MetaData.getConstructorInfo(object.getClass()) == null) {
                 // Read the full object back to update any properties which had defaults
                 fetch(object);
             } else {
@@ -277,16 +384,293 @@ public final class Session implements AutoCloseable {
                     ((Persistable) object).saveReadState();
                 }
             }
+            mapIdentity(object);
 
             return ret;
         } catch (Exception e) {
             Util.rollback(connection);
             throw new PersismException(e.getMessage(), e);
         } finally {
-            Util.cleanup(st, rs);
+            cleanup(st, rs);
+        }
+    }
+
+
+    /**
+     * Inserts the data objects with JDBC batches of 1000. See insertAll(Iterable, int).
+     *
+     * @param objects data objects to insert
+     * @param <T>     Type of the data objects
+     * @return number of rows inserted
+     * @throws BatchInsertException if a batch fails - with the objects which were not inserted. The connection is not
+     *                              rolled back - with auto commit off, commit to keep the inserted rows or roll back.
+     * @throws PersismException     for other errors
+     */
+    public <T> int insertAll(Collection<T> objects) throws PersismException {
+        return insertAll(objects, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Inserts the data objects with JDBC batches (addBatch/executeBatch) instead of a statement execution per object.
+     * Objects with the same insert statement (usually the same class) go in the same batch which runs once it
+     * has batchSize objects.
+     * <p>
+     * Generated keys are assigned when the driver returns a key for each row of the batch - otherwise
+     * a warning is logged and the keys are not assigned. Unlike insert, objects are not read back for
+     * columns with defaults.
+     *
+     * @param objects   data objects to insert
+     * @param batchSize maximum number of objects in a batch
+     * @param <T>       Type of the data objects
+     * @return number of rows inserted
+     * @throws BatchInsertException if a batch fails - with the objects which were not inserted. The connection is not
+     *                              rolled back - with auto commit off, commit to keep the inserted rows or roll back.
+     * @throws PersismException     for other errors
+     */
+    public <T> int insertAll(Iterable<T> objects, int batchSize) throws PersismException {
+        if (batchSize < 1) {
+            throw new PersismException("batchSize should be 1 or more: " + batchSize);
+        }
+
+        // insert statement -> batch
+        Map<String, InsertBatch> batches = new LinkedHashMap<>(4);
+        int count = 0;
+        try {
+            for (T object : objects) {
+                Objects.requireNonNull(object, "object");
+                Map<String, ColumnInfo> columns = metaData.getColumns(object.getClass(), connection);
+                Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
+                String insertStatement = metaData.getInsertStatement(object, connection, fieldAccess);
+
+                InsertBatch batch = batches.get(insertStatement);
+                if (batch == null) {
+                    List<String> generatedKeys = getGeneratedKeyColumns(columns);
+                    PreparedStatement st = prepareStatement(insertStatement, generatedKeys.size() > 0 ? generatedKeys.toArray(new String[0]) : null);
+                    batch = new InsertBatch(st, metaData.getTableName(object.getClass()), generatedKeys, batchSize);
+                    batches.put(insertStatement, batch);
+                }
+
+                List<Object> params = new ArrayList<>(columns.size());
+                addInsertParameters(object, columns, properties, params);
+                setParameters(batch.st, params.toArray());
+                batch.st.addBatch();
+                batch.objects.add(object);
+
+                if (batch.objects.size() == batchSize) {
+                    count += executeBatch(batch, batches.values(), count);
+                }
+            }
+
+            for (InsertBatch batch : batches.values()) {
+                if (batch.objects.size() > 0) {
+                    count += executeBatch(batch, batches.values(), count);
+                }
+            }
+            return count;
+
+        } catch (BatchInsertException e) {
+            // not rolled back - the exception reports the rows inserted so the caller can commit or roll back
+            throw e;
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            for (InsertBatch batch : batches.values()) {
+                try {
+                    // don't leave rows in a statement returned to the statement cache
+                    batch.st.clearBatch();
+                } catch (SQLException e) {
+                    log.warn(e.getMessage(), e);
+                }
+                cleanup(batch.st, null);
+            }
+        }
+    }
+
+    // Statement and objects for a batch of one insert statement
+    private static final class InsertBatch {
+        final PreparedStatement st;
+        final String tableName;
+        final List<String> generatedKeys;
+        final List<Object> objects;
+
+        InsertBatch(PreparedStatement st, String tableName, List<String> generatedKeys, int batchSize) {
+            this.st = st;
+            this.tableName = tableName;
+            this.generatedKeys = generatedKeys;
+            objects = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+        }
+    }
+
+    // Runs the batch and clears its objects. Count is the number of rows inserted so far for the exception.
+    private int executeBatch(InsertBatch batch, Collection<InsertBatch> batches, int count) throws SQLException {
+        int[] updateCounts;
+        try {
+            updateCounts = batch.st.executeBatch();
+        } catch (SQLException e) {
+            throw batchFailed(batch, batches, count, e);
+        }
+
+        metaData.tableChanged(batch.tableName);
+        int ret = 0;
+        for (int updateCount : updateCounts) {
+            ret += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("insertAll " + batch.tableName + " batch of " + batch.objects.size() + " ret: " + ret);
+        }
+
+        if (batch.generatedKeys.size() > 0) {
+            setGeneratedKeys(batch);
+        }
+
+        for (Object object : batch.objects) {
+            lazyValuesSaved(object, metaData.getTableColumnsPropertyInfo(object.getClass(), connection));
+            if (object instanceof Persistable) {
+                ((Persistable) object).saveReadState();
+            }
+            mapIdentity(object);
+        }
+        batch.objects.clear();
+        return ret;
+    }
+
+    private BatchInsertException batchFailed(InsertBatch batch, Collection<InsertBatch> batches, int count, SQLException e) {
+        List<Object> failed = new ArrayList<>(batch.objects.size());
+        int[] updateCounts = e instanceof BatchUpdateException ? ((BatchUpdateException) e).getUpdateCounts() : null;
+        if (updateCounts == null) {
+            failed.addAll(batch.objects);
+        } else {
+            // Drivers either stop at the first failure (fewer counts) or mark each failed row and continue
+            for (int j = 0; j < batch.objects.size(); j++) {
+                if (j >= updateCounts.length || updateCounts[j] == Statement.EXECUTE_FAILED) {
+                    failed.add(batch.objects.get(j));
+                } else {
+                    count += updateCounts[j] == Statement.SUCCESS_NO_INFO ? 1 : updateCounts[j];
+                }
+            }
+        }
+        int batchFailures = failed.size();
+        int batchSize = batch.objects.size();
+        batch.objects.clear();
+
+        for (InsertBatch other : batches) {
+            failed.addAll(other.objects);
+        }
+        return new BatchInsertException("Batch insert into " + batch.tableName + " failed for " + batchFailures + " of " + batchSize + " objects: " + e.getMessage(), e, failed, count);
+    }
+
+    // Assigns the keys when the driver returns a row of keys for each object in the batch.
+    private void setGeneratedKeys(InsertBatch batch) throws SQLException {
+        List<Object[]> keys = new ArrayList<>(batch.objects.size());
+        ResultSet rs = null;
+        try {
+            rs = batch.st.getGeneratedKeys();
+            Object first = batch.objects.get(0);
+            Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(first.getClass(), connection);
+            while (rs != null && rs.next()) {
+                Object[] row = new Object[batch.generatedKeys.size()];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = getTypedValueReturnedFromGeneratedKeys(properties.get(batch.generatedKeys.get(j)).propertyType, rs, j + 1);
+                }
+                keys.add(row);
+            }
+        } catch (SQLFeatureNotSupportedException e) {
+            log.debug(e.getMessage());
+        } finally {
+            Util.cleanup(rs);
+        }
+
+        if (keys.size() != batch.objects.size()) {
+            warnNoDuplicates("Generated keys for " + batch.tableName + " are not assigned by insertAll - the driver returned " + keys.size() + " keys for a batch of " + batch.objects.size() + " rows.");
+            return;
+        }
+
+        for (int j = 0; j < keys.size(); j++) {
+            Object object = batch.objects.get(j);
+            Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
+            for (int k = 0; k < batch.generatedKeys.size(); k++) {
+                String column = batch.generatedKeys.get(k);
+                PropertyInfo propertyInfo = properties.get(column);
+                if (propertyInfo.writer != null) {
+                    propertyInfo.setValue(object, keys.get(j)[k], fieldAccess);
+                } else {
+                    warnNoDuplicates("Property " + propertyInfo.propertyName + " for column " + column + " for class " + object.getClass() +
+                            " has no setter - generated values are not assigned to immutable objects.");
+                }
+            }
+        }
+    }
+
+    private List<String> getGeneratedKeyColumns(Map<String, ColumnInfo> columns) {
+        List<String> generatedKeys = new ArrayList<>(1);
+        for (ColumnInfo column : columns.values()) {
+            if (column.autoIncrement) {
+                generatedKeys.add(column.columnName);
+            } else if (metaData.connectionType == ConnectionTypes.PostgreSQL && column.primary && column.hasDefault) {
+                generatedKeys.add(column.columnName);
+            }
         }
+        return generatedKeys;
     }
 
+    // Adds the converted insert parameters of the object. Returns true if columns with defaults were left out
+    // because their property is null - the same rule as MetaData.getInsertStatement.
+    private boolean addInsertParameters(Object object, Map<String, ColumnInfo> columns, Map<String, PropertyInfo> properties, List<Object> params) {
+        boolean tableHasDefaultColumnValues = false;
+        List<ColumnInfo> columnInfos = new ArrayList<>(columns.size());
+        for (ColumnInfo columnInfo : columns.values()) {
+
+            PropertyInfo propertyInfo = properties.get(columnInfo.columnName);
+            if (!columnInfo.autoIncrement) {
+
+                if (columnInfo.hasDefault) {
+                    // Do not include if this column has a default and no value has been
+                    // set on it's associated property.
+
+                    if (propertyInfo.propertyType.isPrimitive()) {
+                        warnNoDuplicates("Property " + propertyInfo.propertyName + " for column " + columnInfo.columnName + " for class " + object.getClass() +
+                                " should be an Object type to properly detect NULL for defaults (change it from the primitive type to its Boxed version).");
+                    }
+
+                    if (propertyInfo.getValue(object, fieldAccess) == null) {
+
+                        if (columnInfo.primary) {
+                            // This is supported with PostgreSQL but otherwise throw this an exception
+                            if (!(metaData.connectionType == ConnectionTypes.PostgreSQL)) {
+                                throw new PersismException("Non-auto inc generated primary keys are not supported. Please assign your primary key value before performing an insert.");
+                            }
+                        }
+
+                        tableHasDefaultColumnValues = true;
+                        continue;
+                    }
+                }
+
+                Object value = getWriteValue(propertyInfo, object);
+
+                if (value instanceof String) {
+                    // check width
+                    String str = (String) value;
+                    if (str.length() > columnInfo.length) {
+                        str = str.substring(0, columnInfo.length);
+                        log.warn("TRUNCATION with Column: " + columnInfo.columnName + " for table: " + metaData.getTableName(object.getClass()) + ". Old value: \"" + value + "\" New value: \"" + str + "\"");
+                        value = str;
+                    }
+                }
+                params.add(value);
+                columnInfos.add(columnInfo);
+            }
+        }
+
+        assert params.size() == columnInfos.size();
+        for (int j = 0; j < params.size(); j++) {
+            if (params.get(j) != null) {
+                params.set(j, convert(params.get(j), columnInfos.get(j).columnType.getJavaType(), columnInfos.get(j).columnName));
+            }
+        }
+        return tableHasDefaultColumnValues;
+    }
 
     /**
      * Deletes the data object object from the database.
@@ -305,7 +689,7 @@ public final class Session implements AutoCloseable {
         PreparedStatement st = null;
         try {
             String deleteStatement = metaData.getDeleteStatement(object, connection);
-            st = connection.prepareStatement(deleteStatement);
+            st = prepareStatement(deleteStatement, null);
 
             // These keys should always be in sorted order.
             Map<String, PropertyInfo> columns = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
@@ -313,7 +697,7 @@ public final class Session implements AutoCloseable {
             List<Object> params = new ArrayList<>(primaryKeys.size());
             List<ColumnInfo> columnInfos = new ArrayList<>(primaryKeys.size());
             for (String column : primaryKeys) {
-                params.add(columns.get(column).getter.invoke(object));
+                params.add(columns.get(column).getValue(object, fieldAccess));
                 columnInfos.add(metaData.getColumns(object.getClass(), connection).get(column));
             }
 
@@ -324,6 +708,13 @@ public final class Session implements AutoCloseable {
             }
             setParameters(st, params.toArray());
             int ret = st.executeUpdate();
+            metaData.tableChanged(metaData.getTableName(object.getClass()));
+            if (identityMap != null) {
+                Object[] primaryKeyValues = getPrimaryKeyValues(object);
+                if (primaryKeyValues != null) {
+                    identityMap.remove(object.getClass(), primaryKeyValues);
+                }
+            }
             return ret;
 
         } catch (Exception e) {
@@ -331,7 +722,7 @@ public final class Session implements AutoCloseable {
             throw new PersismException(e.getMessage(), e);
 
         } finally {
-            Util.cleanup(st, null);
+            cleanup(st, null);
         }
     }
 
@@ -346,12 +737,16 @@ public final class Session implements AutoCloseable {
 
             if (parameters.length == 0) {
                 st = connection.createStatement();
-                return st.execute(sql);
+                boolean ret = st.execute(sql);
+                metaData.tableChanged(null);
+                return ret;
             } else {
                 st = connection.prepareStatement(sql);
                 PreparedStatement pst = (PreparedStatement) st;
                 setParameters(pst, parameters);
-                return pst.execute();
+                boolean ret = pst.execute();
+                metaData.tableChanged(null);
+                return ret;
             }
 
         } catch (Exception e) {
@@ -365,52 +760,337 @@ public final class Session implements AutoCloseable {
     /**
      * Query for a list of objects of the specified class using the specified SQL query and parameters.
      * The type of the list can be Data Objects or native Java Objects or primitives.
+     * <p>
+     * The SQL can use named parameters (:name) instead of ? with a single Map of values by name or a data object
+     * with properties matching the names as the parameter. This works for all the queries taking SQL and parameters.
+     * <pre>{@code
+     * session.query(Invoice.class, "SELECT * FROM Invoices WHERE Customer_ID = :customerId AND Paid = :paid", params);
+     * }</pre>
      *
      * @param objectClass class of objects to return.
      * @param sql         query string to execute.
-     * @param parameters  parameters to the query.
+     * @param parameters  parameters to the query - or a Map or data object for named parameters.
      * @param <T>         Return type
      * @return a list of objects of the specified class using the specified SQL query and parameters.
      * @throws PersismException If something goes wrong you get a big stack trace.
      */
     public <T> List<T> query(Class<T> objectClass, String sql, Object... parameters) throws PersismException {
-        List<T> list = new ArrayList<T>(32);
+        QueryCache cache = queryCache;
+        NamedSql namedSql = cache != null ? getNamedSql(sql, parameters) : null;
+        if (namedSql != null) {
+            // cache by the values rather than the Map or data object which could change
+            return query(objectClass, namedSql.sql, namedSql.bind(parameters[0], fieldAccess));
+        }
+        if (cache == null || !isSelect(sql)) {
+            return identity(readList(objectClass, sql, parameters));
+        }
 
-        Result result = new Result();
+        List<T> list = cache.get(this, metaData, objectClass, sql, parameters);
+        if (list == null) {
+            long generation = cache.generation();
+            list = readList(objectClass, sql, parameters);
+            cache.put(metaData, objectClass, sql, parameters, list, metaData.getTableNames(sql), generation);
+        }
+        return identity(list);
+    }
 
-        // If we know this type it means it's a primitive type. Not a DAO so we use a different rule to read those
-        boolean isPOJO = Types.getType(objectClass) == null;
+    // SELECT or WITH as the first word - ignoring case and leading white space
+    private static boolean isSelect(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String word = sql.substring(start, end);
+        return "select".equalsIgnoreCase(word) || "with".equalsIgnoreCase(word);
+    }
 
-        if (isPOJO && objectClass.getAnnotation(NotTable.class) == null) {
-            // Make sure columns are initialized if this is a table.
-            metaData.getTableColumnsPropertyInfo(objectClass, connection);
+    // Replaces objects already in the identity map with the mapped instance
+    private <T> List<T> identity(List<T> list) {
+        if (identityMap != null && !list.isEmpty() && Types.getType(list.get(0).getClass()) == null) {
+            for (int j = 0; j < list.size(); j++) {
+                list.set(j, identity(list.get(j)));
+            }
         }
+        return list;
+    }
+
+    private <T> List<T> readList(Class<T> objectClass, String sql, Object... parameters) throws PersismException {
+        List<T> list = new ArrayList<T>(32);
+
+        Result result = new Result();
 
         try {
 
             exec(result, sql, parameters);
 
+            RowReader<T> reader = rowReader(objectClass, result.rs);
             while (result.rs.next()) {
-                if (isPOJO) {
-                    // should be getDeclaredConstructor().newInstance() now.
-                    T t = objectClass.newInstance();
-                    list.add(readObject(t, result.rs));
-                } else {
-                    list.add((T) readColumn(result.rs, 1, objectClass));
-                }
+                list.add(reader.read(result.rs));
             }
 
         } catch (Exception e) {
             Util.rollback(connection);
             throw new PersismException(e.getMessage(), e);
         } finally {
-            Util.cleanup(result.st, result.rs);
+            cleanup(result.st, result.rs);
         }
 
         return list;
 
     }
 
+    /**
+     * Query for objects of the specified class using the specified SQL query and parameters, passing each object to the
+     * handler as its row is read. Nothing is kept after the handler returns and Persistable objects do not save their
+     * read state. The type can be Data Objects or native Java Objects or primitives.
+     *
+     * @param objectClass class of objects to handle.
+     * @param handler     receives the object read for each row. See RowHandler for reusing one instance.
+     * @param sql         query string to execute.
+     * @param parameters  parameters to the query.
+     * @param <T>         Type of objects handled
+     * @throws PersismException if the query fails or the handler throws an exception.
+     */
+    public <T> void query(Class<T> objectClass, RowHandler<T> handler, String sql, Object... parameters) throws PersismException {
+        Result result = new Result();
+        try {
+            exec(result, sql, parameters);
+
+            RowReader<T> reader;
+            if (Types.getType(objectClass) == null) {
+                reader = handlerReader(objectClass, handler.isReuseInstance());
+            } else {
+                reader = rowReader(objectClass, result.rs);
+            }
+
+            while (result.rs.next()) {
+                handler.handle(reader.read(result.rs));
+            }
+
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+    }
+
+    /**
+     * Query for objects of the specified class using the specified SQL query and parameters, passing each object to the
+     * consumer as its row is read. Same as query with a RowHandler creating a new object for each row.
+     *
+     * @param objectClass class of objects to handle.
+     * @param consumer    receives the object read for each row.
+     * @param sql         query string to execute.
+     * @param parameters  parameters to the query.
+     * @param <T>         Type of objects handled
+     * @throws PersismException if the query fails or the consumer throws an exception.
+     */
+    public <T> void query(Class<T> objectClass, Consumer<T> consumer, String sql, Object... parameters) throws PersismException {
+        query(objectClass, new RowHandler<T>() {
+            @Override
+            public void handle(T object) {
+                consumer.accept(object);
+            }
+        }, sql, parameters);
+    }
+
+    /**
+     * Query for objects of the specified class using the specified SQL query and parameters, reading each row as it is
+     * requested from a forward only ResultSet. Use this instead of query for results too large to hold in memory.
+     * The type can be Data Objects or native Java Objects or primitives.
+     * <p>
+     * The Statement and ResultSet stay open until the stream is closed or completely read. Use try-with-resources:
+     * <pre>{@code
+     * try (Stream<Customer> customers = session.stream(Customer.class, "SELECT * FROM Customers")) {
+     *     customers.forEach(customer -> ...);
+     * }
+     * }</pre>
+     *
+     * @param objectClass class of objects to return.
+     * @param sql         query string to execute.
+     * @param parameters  parameters to the query.
+     * @param <T>         Return type
+     * @return a sequential Stream of objects of the specified class.
+     * @throws PersismException if the query fails. Exceptions reading rows are thrown while consuming the stream.
+     * @see #setFetchSize(int)
+     */
+    public <T> Stream<T> stream(Class<T> objectClass, String sql, Object... parameters) throws PersismException {
+        return cursor(objectClass, sql, parameters).stream();
+    }
+
+    /**
+     * Query for objects of the specified class using the specified SQL query and parameters, reading each row as it is
+     * requested from a forward only ResultSet. Same as stream but returns an Iterator which should be closed.
+     *
+     * @param objectClass class of objects to return.
+     * @param sql         query string to execute.
+     * @param parameters  parameters to the query.
+     * @param <T>         Return type
+     * @return Cursor over the rows. Close it to release the Statement and ResultSet.
+     * @throws PersismException if the query fails.
+     * @see #setFetchSize(int)
+     */
+    public <T> Cursor<T> cursor(Class<T> objectClass, String sql, Object... parameters) throws PersismException {
+        Result result = new Result();
+        try {
+            exec(result, sql, parameters);
+            return new Cursor<>(result, rowReader(objectClass, result.rs), this);
+        } catch (Exception e) {
+            cleanup(result.st, result.rs);
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Query for objects of the specified class using the specified SQL query and parameters, publishing each object as
+     * the subscriber requests it. The query runs for each subscriber when it first requests items and rows are only
+     * read to meet the demand, with the ResultSet fetch size following the outstanding demand (up to the session
+     * fetch size if set). Cancelling the subscription closes the Statement and ResultSet.
+     * <p>
+     * Rows are read on the thread calling Subscription.request. Like the Session, the publisher is not thread safe -
+     * don't use the Session for anything else until the subscription completes or is cancelled.
+     *
+     * @param objectClass class of objects to publish.
+     * @param sql         query string to execute.
+     * @param parameters  parameters to the query.
+     * @param <T>         Type of objects published
+     * @return a cold Publisher - each subscription runs the query. On Java 9+ use FlowAdapters.toFlowPublisher for a
+     * java.util.concurrent.Flow.Publisher.
+     * @see Flow
+     */
+    public <T> Flow.Publisher<T> publish(Class<T> objectClass, String sql, Object... parameters) {
+        return new QueryPublisher<>(this, objectClass, sql, parameters);
+    }
+
+    /**
+     * Query for the first column of each row as ints without creating an Integer per row.
+     * Null values read as 0 - use queryIntVector to tell them apart.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public int[] queryInts(String sql, Object... parameters) throws PersismException {
+        return queryIntVector(sql, parameters).toArray();
+    }
+
+    /**
+     * Query for the first column of each row as longs without creating a Long per row.
+     * Null values read as 0 - use queryLongVector to tell them apart.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public long[] queryLongs(String sql, Object... parameters) throws PersismException {
+        return queryLongVector(sql, parameters).toArray();
+    }
+
+    /**
+     * Query for the first column of each row as doubles without creating a Double per row.
+     * Null values read as 0 - use queryDoubleVector to tell them apart.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public double[] queryDoubles(String sql, Object... parameters) throws PersismException {
+        return queryDoubleVector(sql, parameters).toArray();
+    }
+
+    /**
+     * Query for the first column of each row as ints keeping track of null values.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public IntVector queryIntVector(String sql, Object... parameters) throws PersismException {
+        return readVector(new IntVector(initialCapacity()), sql, parameters);
+    }
+
+    /**
+     * Query for the first column of each row as longs keeping track of null values.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public LongVector queryLongVector(String sql, Object... parameters) throws PersismException {
+        return readVector(new LongVector(initialCapacity()), sql, parameters);
+    }
+
+    /**
+     * Query for the first column of each row as doubles keeping track of null values.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the values in result set order.
+     * @throws PersismException if the query fails.
+     */
+    public DoubleVector queryDoubleVector(String sql, Object... parameters) throws PersismException {
+        return readVector(new DoubleVector(initialCapacity()), sql, parameters);
+    }
+
+    /**
+     * Query into one typed column vector per result set column instead of one object per row. Numeric columns are
+     * held in primitive arrays and text columns are dictionary encoded. See ColumnarResult.
+     *
+     * @param sql        query string to execute.
+     * @param parameters parameters to the query.
+     * @return the columns of the result.
+     * @throws PersismException if the query fails.
+     * @see #setFetchSize(int)
+     */
+    public ColumnarResult queryColumnar(String sql, Object... parameters) throws PersismException {
+        Result result = new Result();
+        try {
+            exec(result, sql, parameters);
+            ColumnarResult columnar = new ColumnarResult(result.rs.getMetaData(), initialCapacity());
+            while (result.rs.next()) {
+                columnar.read(result.rs);
+            }
+            return columnar;
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+    }
+
+    private <V extends ColumnVector> V readVector(V vector, String sql, Object... parameters) throws PersismException {
+        Result result = new Result();
+        try {
+            exec(result, sql, parameters);
+            while (result.rs.next()) {
+                vector.read(result.rs, 1);
+            }
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+        return vector;
+    }
+
+    // vectors start at the fetch size since at least that many rows are usually read
+    private int initialCapacity() {
+        return fetchSize > 0 ? fetchSize : 32;
+    }
+
     /**
      * Fetch an object from the database by it's primary key(s).
      * You should instantiate the object and set the primary key properties before calling this method.
@@ -434,7 +1114,26 @@ public final class Session implements AutoCloseable {
             throw new PersismException("Cannot perform FETCH - " + metaData.getTableName(objectClass) + " has no primary keys.");
         }
 
+        if (MetaData.getConstructorInfo(objectClass) != null) {
+            throw new PersismException("Cannot perform FETCH - " + objectClass + " is immutable. Use fetch(Class, sql, parameters) instead.");
+        }
+
         Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(object.getClass(), connection);
+
+        Object[] primaryKeyValues = identityMap != null ? getPrimaryKeyValues(object) : null;
+        if (primaryKeyValues != null) {
+            Object mapped = identityMap.get(objectClass, primaryKeyValues);
+            if (mapped != null) {
+                if (mapped != object) {
+                    for (PropertyInfo propertyInfo : properties.values()) {
+                        propertyInfo.setValue(object, propertyInfo.getValue(mapped, fieldAccess), fieldAccess);
+                    }
+                    saveReadState(object);
+                }
+                return true;
+            }
+        }
+
         List<Object> params = new ArrayList<>(primaryKeys.size());
         List<ColumnInfo> columnInfos = new ArrayList<>(primaryKeys.size());
         Map<String, ColumnInfo> cols = metaData.getColumns(objectClass, connection);
@@ -442,7 +1141,7 @@ public final class Session implements AutoCloseable {
         try {
             for (String column : primaryKeys) {
                 PropertyInfo propertyInfo = properties.get(column);
-                params.add(propertyInfo.getter.invoke(object));
+                params.add(propertyInfo.getValue(object, fieldAccess));
                 columnInfos.add(cols.get(column));
             }
             assert params.size() == columnInfos.size();
@@ -459,7 +1158,10 @@ public final class Session implements AutoCloseable {
             exec(result, sql, params.toArray());
 
             if (result.rs.next()) {
-                readObject(object, result.rs);
+                readObject(object, result.rs, metaData.getRowPlan(objectClass, result.rs, connection));
+                if (primaryKeyValues != null) {
+                    identityMap.put(objectClass, primaryKeyValues, object);
+                }
                 return true;
             }
             return false;
@@ -468,7 +1170,7 @@ public final class Session implements AutoCloseable {
             Util.rollback(connection);
             throw new PersismException(e.getMessage(), e);
         } finally {
-            Util.cleanup(result.st, result.rs);
+            cleanup(result.st, result.rs);
         }
     }
 
@@ -493,6 +1195,227 @@ public final class Session implements AutoCloseable {
 //        return fetch(objectClass, select, primaryKey);
 //    }
 
+    /**
+     * Fetch the objects for many primary keys using SELECT ... WHERE pk IN (...) queries of up to 500 keys each.
+     *
+     * @param objectClass class of objects to return - a table with primary keys.
+     * @param keys        primary key values. For tables with more than one primary key use an Object[] or List with
+     *                    the values in primary key order.
+     * @param <T>         Return type
+     * @return objects in the same order as keys with null for keys not found.
+     * @throws PersismException if the class has no primary keys, a key has the wrong number of values or the query fails.
+     * @see #fetchAll(Class, Collection, int)
+     */
+    public <T> List<T> fetchAll(Class<T> objectClass, Collection<?> keys) throws PersismException {
+        return fetchAll(objectClass, keys, 500);
+    }
+
+    /**
+     * Fetch the objects for many primary keys using SELECT ... WHERE pk IN (...) queries of up to chunkSize keys each.
+     * Note that databases limit the number of parameters for a statement (2100 for SQL Server for example).
+     *
+     * @param objectClass class of objects to return - a table with primary keys.
+     * @param keys        primary key values. For tables with more than one primary key use an Object[] or List with
+     *                    the values in primary key order.
+     * @param chunkSize   maximum number of keys per query.
+     * @param <T>         Return type
+     * @return objects in the same order as keys with null for keys not found.
+     * @throws PersismException if the class has no primary keys, a key has the wrong number of values or the query fails.
+     */
+    public <T> List<T> fetchAll(Class<T> objectClass, Collection<?> keys, int chunkSize) throws PersismException {
+        if (chunkSize <= 0) {
+            throw new PersismException("chunkSize should be more than 0: " + chunkSize);
+        }
+        List<String> primaryKeys = metaData.getPrimaryKeys(objectClass, connection);
+        if (primaryKeys.size() == 0) {
+            throw new PersismException("Cannot perform FETCH - " + metaData.getTableName(objectClass) + " has no primary keys.");
+        }
+
+        Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(objectClass, connection);
+        Map<String, ColumnInfo> columns = metaData.getColumns(objectClass, connection);
+        int keySize = primaryKeys.size();
+        PropertyInfo[] keyProperties = new PropertyInfo[keySize];
+        ColumnInfo[] keyColumns = new ColumnInfo[keySize];
+        for (int j = 0; j < keySize; j++) {
+            keyProperties[j] = properties.get(primaryKeys.get(j));
+            keyColumns[j] = columns.get(primaryKeys.get(j));
+        }
+
+        // key values and the same values normalized to match the values read (see keyValue)
+        List<Object[]> keyParameters = new ArrayList<>(keys.size());
+        List<List<Object>> keyValues = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            Object[] values;
+            if (key instanceof Object[]) {
+                values = (Object[]) key;
+            } else if (key instanceof List) {
+                values = ((List<?>) key).toArray();
+            } else {
+                values = new Object[]{key};
+            }
+            if (values.length != keySize) {
+                throw new PersismException("Cannot perform FETCH - key " + Arrays.deepToString(values) + " should have " + keySize + " values " + primaryKeys);
+            }
+            Object[] normalized = new Object[keySize];
+            for (int j = 0; j < keySize; j++) {
+                normalized[j] = keyValue(values[j]);
+            }
+            keyParameters.add(values);
+            keyValues.add(Arrays.asList(normalized));
+        }
+
+        Map<List<Object>, T> found = new HashMap<>(keyValues.size() * 2);
+        Result result = new Result();
+        try {
+            for (int start = 0; start < keyValues.size(); start += chunkSize) {
+                // the last chunk repeats its last key so every chunk uses the same SQL
+                int count = Math.min(chunkSize, keyValues.size());
+                String sql = metaData.getFetchAllStatement(objectClass, count, connection);
+
+                Object[] params = new Object[count * keySize];
+                for (int k = 0; k < count; k++) {
+                    Object[] key = keyParameters.get(Math.min(start + k, keyValues.size() - 1));
+                    for (int j = 0; j < keySize; j++) {
+                        Object value = key[j];
+                        params[k * keySize + j] = value == null ? null : convert(value, keyColumns[j].columnType.getJavaType(), keyColumns[j].columnName);
+                    }
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("FETCH ALL " + sql + " PARAMS: " + Arrays.asList(params));
+                }
+
+                exec(result, sql, params);
+                RowReader<T> reader = rowReader(objectClass, result.rs);
+                while (result.rs.next()) {
+                    T object = identity(reader.read(result.rs));
+                    Object[] values = new Object[keySize];
+                    for (int j = 0; j < keySize; j++) {
+                        values[j] = keyValue(keyProperties[j].getValue(object, fieldAccess));
+                    }
+                    found.put(Arrays.asList(values), object);
+                }
+                cleanup(result.st, result.rs);
+                result.st = null;
+                result.rs = null;
+            }
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+
+        List<T> list = new ArrayList<>(keyValues.size());
+        int misses = 0;
+        for (List<Object> key : keyValues) {
+            T object = found.get(key);
+            if (object == null) {
+                misses++;
+            }
+            list.add(object);
+        }
+        if (misses > 0 && log.isDebugEnabled()) {
+            log.debug("FETCH ALL " + objectClass + " " + misses + " of " + keyValues.size() + " keys not found");
+        }
+        return list;
+    }
+
+    /**
+     * Read a page of objects in primary key order using a keyset query (WHERE pk > last key of the previous page
+     * ORDER BY pk with a row limit) so reading a page costs the same however deep it is.
+     * <pre>{@code
+     * Page<Customer> page = session.page(Customer.class, PageRequest.first(100));
+     * while (page.hasNext()) {
+     *     page = session.page(Customer.class, page.next());
+     * }
+     * }</pre>
+     *
+     * @param objectClass class of objects to return - a table with primary keys.
+     * @param request     first page or the page after a continuation token
+     * @param <T>         Type of objects
+     * @return the objects and the continuation token for the next page
+     * @throws PersismException if the class has no primary keys, the token is not valid or the query fails.
+     */
+    public <T> Page<T> page(Class<T> objectClass, PageRequest request) throws PersismException {
+        List<String> primaryKeys = metaData.getPrimaryKeys(objectClass, connection);
+        if (primaryKeys.size() == 0) {
+            throw new PersismException("Cannot perform PAGE - " + metaData.getTableName(objectClass) + " has no primary keys.");
+        }
+
+        Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(objectClass, connection);
+        Map<String, ColumnInfo> columns = metaData.getColumns(objectClass, connection);
+
+        Object[] after = null;
+        if (request.getToken() != null) {
+            after = PageRequest.decode(request.getToken());
+            if (after.length != primaryKeys.size()) {
+                throw new PersismException("Invalid page token for " + objectClass + ": " + request.getToken());
+            }
+        }
+
+        // one more row than the page size to know if there's a next page
+        String sql = metaData.getPageStatement(objectClass, after != null, request.getSize() + 1, connection);
+        Object[] params = new Object[0];
+        if (after != null) {
+            int[] parameters = metaData.getPageParameters(objectClass, connection);
+            params = new Object[parameters.length];
+            for (int j = 0; j < parameters.length; j++) {
+                ColumnInfo columnInfo = columns.get(primaryKeys.get(parameters[j]));
+                params[j] = convert(after[parameters[j]], columnInfo.columnType.getJavaType(), columnInfo.columnName);
+            }
+        }
+
+        List<T> list = new ArrayList<>(request.getSize() + 1);
+        Result result = new Result();
+        try {
+            exec(result, sql, params);
+            RowReader<T> reader = rowReader(objectClass, result.rs);
+            while (result.rs.next()) {
+                list.add(identity(reader.read(result.rs)));
+            }
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+
+        String nextToken = null;
+        if (list.size() > request.getSize()) {
+            list.remove(list.size() - 1);
+            T last = list.get(list.size() - 1);
+            Object[] values = new Object[primaryKeys.size()];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = properties.get(primaryKeys.get(j)).getValue(last, fieldAccess);
+            }
+            nextToken = PageRequest.encode(values);
+        }
+        return new Page<>(list, nextToken, request.getSize());
+    }
+
+    // Primary key value for matching keys to rows - integral numbers as Long, decimals without trailing zeros so an
+    // Integer key matches a long property for example. byte arrays are compared by content.
+    private static Object keyValue(Object value) {
+        if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+            return ((BigInteger) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0 && decimal.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) >= 0) {
+                return decimal.longValue();
+            }
+            return decimal;
+        }
+        if (value instanceof byte[]) {
+            // compared by content
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        return value;
+    }
+
     /**
      * Fetch an object of the specified type from the database. The type can be a Data Object or a native Java Object or primitive.
      *
@@ -516,145 +1439,398 @@ public final class Session implements AutoCloseable {
             if (result.rs.next()) {
 
                 if (isPOJO) {
-                    T t = objectClass.newInstance();
-                    readObject(t, result.rs);
-                    return t;
+                    return identity(readObject(objectClass, result.rs, metaData.getRowPlan(objectClass, result.rs, connection)));
                 } else {
                     return (T) readColumn(result.rs, 1, objectClass);
                 }
             }
-
+
+            return null;
+
+        } catch (Exception e) {
+            Util.rollback(connection);
+            throw new PersismException(e.getMessage(), e);
+        } finally {
+            cleanup(result.st, result.rs);
+        }
+    }
+
+    MetaData getMetaData() {
+        return metaData;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /*
+    Private methods
+     */
+
+    private Result exec(Result result, String sql, Object... parameters) throws SQLException {
+        NamedSql namedSql = getNamedSql(sql, parameters);
+        if (namedSql != null) {
+            sql = namedSql.sql;
+            parameters = namedSql.bind(parameters[0], fieldAccess);
+        }
+
+        if (isSelect(sql)) {
+            result.st = prepareStatement(sql, null);
+
+            PreparedStatement pst = (PreparedStatement) result.st;
+            if (fetchSize > 0 || statementCache != null) {
+                pst.setFetchSize(fetchSize);
+            }
+            setParameters(pst, parameters);
+            result.rs = pst.executeQuery();
+        } else {
+            if (!sql.toLowerCase().startsWith("{call")) {
+                sql = "{call " + sql + "} ";
+            }
+            result.st = prepareCall(sql);
+
+            CallableStatement cst = (CallableStatement) result.st;
+            if (fetchSize > 0 || statementCache != null) {
+                cst.setFetchSize(fetchSize);
+            }
+            setParameters(cst, parameters);
+            result.rs = cst.executeQuery();
+        }
+        return result;
+    }
+
+    // The parsed SQL if the only parameter is a Map or a data object for named parameters in the SQL, otherwise null
+    private NamedSql getNamedSql(String sql, Object[] parameters) {
+        if (parameters.length != 1 || parameters[0] == null || sql.indexOf(':') < 0) {
+            return null;
+        }
+        Class<?> parameterClass = parameters[0].getClass();
+        if (!(parameters[0] instanceof Map) && (Types.getType(parameterClass) != null || parameterClass.isEnum())) {
+            return null;
+        }
+        NamedSql namedSql = metaData.getNamedSql(sql);
+        return namedSql.names.length > 0 ? namedSql : null;
+    }
+
+    // Returns the mapped instance for the object's primary key, mapping the object if there is none
+    private <T> T identity(T object) {
+        if (identityMap == null || object == null) {
+            return object;
+        }
+        Object[] primaryKeyValues = getPrimaryKeyValues(object);
+        if (primaryKeyValues == null) {
+            return object;
+        }
+        // objects are mapped by their class so the mapped instance is a T
+        @SuppressWarnings("unchecked")
+        T mapped = (T) identityMap.putIfAbsent(object.getClass(), primaryKeyValues, object);
+        return mapped;
+    }
+
+    private void mapIdentity(Object object) {
+        if (identityMap != null) {
+            Object[] primaryKeyValues = getPrimaryKeyValues(object);
+            if (primaryKeyValues != null) {
+                identityMap.put(object.getClass(), primaryKeyValues, object);
+            }
+        }
+    }
+
+    // null if the object is not for a table with primary keys or the primary keys are not set
+    private Object[] getPrimaryKeyValues(Object object) {
+        Class<?> objectClass = object.getClass();
+        PropertyInfo[] keyProperties = identityMap.getKeyProperties(objectClass);
+        if (keyProperties == null) {
+            keyProperties = new PropertyInfo[0];
+            if (objectClass.getAnnotation(NotTable.class) == null) {
+                List<String> primaryKeys = metaData.getPrimaryKeys(objectClass, connection);
+                Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(objectClass, connection);
+                keyProperties = new PropertyInfo[primaryKeys.size()];
+                for (int j = 0; j < keyProperties.length; j++) {
+                    keyProperties[j] = properties.get(primaryKeys.get(j));
+                }
+            }
+            identityMap.putKeyProperties(objectClass, keyProperties);
+        }
+        if (keyProperties.length == 0) {
             return null;
+        }
+        Object[] values = new Object[keyProperties.length];
+        for (int j = 0; j < keyProperties.length; j++) {
+            values[j] = keyProperties[j].getValue(object, fieldAccess);
+            if (values[j] == null) {
+                return null;
+            }
+        }
+        return values;
+    }
 
-        } catch (Exception e) {
-            Util.rollback(connection);
-            throw new PersismException(e.getMessage(), e);
-        } finally {
-            Util.cleanup(result.st, result.rs);
+    // keyColumns are the generated key columns for inserts or null
+    private PreparedStatement prepareStatement(String sql, String[] keyColumns) throws SQLException {
+        if (statementCache != null) {
+            return statementCache.prepareStatement(connection, sql, keyColumns);
         }
+        if (keyColumns != null) {
+            return connection.prepareStatement(sql, keyColumns);
+        }
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
     }
 
-    MetaData getMetaData() {
-        return metaData;
+    private CallableStatement prepareCall(String sql) throws SQLException {
+        if (statementCache != null) {
+            return statementCache.prepareCall(connection, sql);
+        }
+        return connection.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
     }
 
-    /*
-    Private methods
-     */
+    // Closes the result set and returns the statement to the statement cache or closes it
+    void cleanup(Statement st, ResultSet rs) {
+        if (statementCache == null) {
+            Util.cleanup(st, rs);
+            return;
+        }
+        Util.cleanup(rs);
+        if (st != null) {
+            statementCache.release(st);
+        }
+    }
 
-    private Result exec(Result result, String sql, Object... parameters) throws SQLException {
-        if (sql.toLowerCase().startsWith("select ")) {
-            result.st = connection.prepareStatement(sql);
+    void rollback() {
+        Util.rollback(connection);
+    }
 
-            PreparedStatement pst = (PreparedStatement) result.st;
-            setParameters(pst, parameters);
-            result.rs = pst.executeQuery();
-        } else {
-            if (!sql.toLowerCase().startsWith("{call")) {
-                sql = "{call " + sql + "} ";
+    // Reads rows of the query as objectClass. For data objects the row plan is built on the first row so an empty
+    // result does not need to match the class. For primitives the first column is read.
+    private <T> RowReader<T> rowReader(Class<T> objectClass, ResultSet rs) throws SQLException {
+        // If we know this type it means it's a primitive type. Not a DAO so we use a different rule to read those
+        boolean isPOJO = Types.getType(objectClass) == null;
+
+        if (isPOJO) {
+            if (objectClass.getAnnotation(NotTable.class) == null) {
+                // Make sure columns are initialized if this is a table.
+                metaData.getTableColumnsPropertyInfo(objectClass, connection);
             }
-            result.st = connection.prepareCall(sql);
 
-            CallableStatement cst = (CallableStatement) result.st;
-            setParameters(cst, parameters);
-            result.rs = cst.executeQuery();
+            RowPlan[] plan = new RowPlan[1];
+            return row -> {
+                if (plan[0] == null) {
+                    plan[0] = metaData.getRowPlan(objectClass, row, connection);
+                }
+                return readObject(objectClass, row, plan[0]);
+            };
         }
-        return result;
+
+        ResultSetMetaData rsmd = rs.getMetaData();
+        Types columnType = getColumnType(rsmd.getColumnType(1), objectClass);
+        String columnName = rsmd.getColumnLabel(1);
+        // objectClass may be primitive (int.class) so Class.cast can't be used - readColumn returns the boxed type
+        @SuppressWarnings("unchecked")
+        RowReader<T> reader = row -> (T) readColumn(row, 1, columnType, columnName, objectClass);
+        return reader;
     }
 
-    private <T> T readObject(Object object, ResultSet rs) throws IllegalAccessException, SQLException, InvocationTargetException, IOException {
+    // Reads data objects for a RowHandler - the read state is not saved. With reuseInstance one instance is filled
+    // for each row resetting properties for null columns. Immutable classes get a new object for each row.
+    private <T> RowReader<T> handlerReader(Class<T> objectClass, boolean reuseInstance) {
+        if (objectClass.getAnnotation(NotTable.class) == null) {
+            // Make sure columns are initialized if this is a table.
+            metaData.getTableColumnsPropertyInfo(objectClass, connection);
+        }
 
-        Class<?> objectClass = object.getClass();
-        // We should never call this method with a primitive type.
-        assert Types.getType(objectClass) == null;
+        RowPlan[] plan = new RowPlan[1];
+        Object[] instance = new Object[1];
+        Object[][] defaults = new Object[1][];
+        return row -> {
+            if (plan[0] == null) {
+                plan[0] = metaData.getRowPlan(objectClass, row, connection);
+                if (reuseInstance && plan[0].constructor == null) {
+                    instance[0] = MetaData.newInstance(objectClass);
+                    defaults[0] = new Object[plan[0].properties.length];
+                    for (int j = 0; j < defaults[0].length; j++) {
+                        defaults[0][j] = Util.defaultValue(plan[0].properties[j].propertyType);
+                    }
+                } else if (reuseInstance) {
+                    warnNoDuplicates("Class " + objectClass + " is immutable - a new instance is created for each row.");
+                }
+            }
+            if (instance[0] == null) {
+                return readRow(objectClass, row, plan[0]);
+            }
+            readRow(instance[0], row, plan[0], defaults[0]);
+            return objectClass.cast(instance[0]);
+        };
+    }
 
-        Map<String, PropertyInfo> properties;
-        if (objectClass.getAnnotation(NotTable.class) == null) {
-            properties = metaData.getTableColumnsPropertyInfo(objectClass, connection);
-        } else {
-            properties = metaData.getQueryColumnsPropertyInfo(objectClass, rs);
+    private <T> T readObject(Class<T> objectClass, ResultSet rs, RowPlan plan) throws SQLException, IOException, ReflectiveOperationException {
+        return saveReadState(readRow(objectClass, rs, plan));
+    }
+
+    private void readObject(Object object, ResultSet rs, RowPlan plan) throws SQLException, IOException {
+        readRow(object, rs, plan, null);
+        saveReadState(object);
+    }
+
+    private static <T> T saveReadState(T object) {
+        if (object instanceof Persistable) {
+            // Save this object initial state to later detect changed properties
+            ((Persistable) object).saveReadState();
         }
+        return object;
+    }
 
-        // Test if all properties have column mapping and throw PersismException if not
-        // This block verifies that the object is fully initialized.
-        // Any properties not marked by NotMapped should have been set (or if they have a getter only)
-        // If not throw a PersismException
-        Collection<PropertyInfo> allProperties = MetaData.getPropertyInfo(objectClass);
-        if (properties.values().size() < allProperties.size()) {
-            Set<PropertyInfo> missing = new HashSet<>(allProperties.size());
-            missing.addAll(allProperties);
-            missing.removeAll(properties.values());
+    // New object for the row without saving the read state
+    private <T> T readRow(Class<T> objectClass, ResultSet rs, RowPlan plan) throws SQLException, IOException, ReflectiveOperationException {
+        ConstructorInfo constructor = plan.constructor;
+        if (constructor == null) {
+            T object = MetaData.newInstance(objectClass);
+            readRow(object, rs, plan, null);
+            return object;
+        }
 
-            StringBuilder sb = new StringBuilder();
-            String sep = "";
-            for (PropertyInfo prop : missing) {
-                sb.append(sep).append(prop.propertyName);
-                sep = ",";
+        // Immutable object. Read the constructor arguments first - any other properties are set after with their setters.
+        Object[] arguments = new Object[constructor.parameters.length];
+        Object[] values = null;
+        for (int j = 0; j < plan.columns.length; j++) {
+            Object value = readColumn(rs, plan.columns[j], plan.columnTypes[j], plan.columnNames[j], plan.properties[j].propertyType);
+
+            int index = plan.parameters[j];
+            if (index >= 0) {
+                arguments[index] = value;
+            } else if (value != null) {
+                if (values == null) {
+                    values = new Object[plan.columns.length];
+                }
+                values[j] = value;
             }
+        }
 
-            throw new PersismException("Object " + objectClass + " was not properly initialized. Some properties not initialized in the queried columns (" + sb + ").");
+        Object object;
+        try {
+            object = constructor.newInstance(arguments);
+        } catch (ClassCastException e) {
+            String msg = "Object " + objectClass + ". Constructor parameter types: " + Arrays.toString(constructor.parameterTypes) + " - Values read: " + Arrays.toString(arguments);
+            throw new PersismException(msg, e);
         }
 
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columnCount = rsmd.getColumnCount();
-        List<String> foundColumns = new ArrayList<>(columnCount);
+        if (values != null) {
+            for (int j = 0; j < values.length; j++) {
+                if (values[j] != null) {
+                    setValue(object, plan, j, values[j]);
+                }
+            }
+        }
+        setLazyValues(object, plan);
 
-        for (int j = 1; j <= columnCount; j++) {
+        return objectClass.cast(object);
+    }
 
-            String columnName = rsmd.getColumnLabel(j);
-            PropertyInfo columnProperty = properties.get(columnName);
+    // Sets the properties read from the row without saving the read state. If defaults is not null (reused instances)
+    // properties for null columns are reset to their default value (null or the primitive default) instead of being skipped.
+    private void readRow(Object object, ResultSet rs, RowPlan plan, Object[] defaults) throws SQLException, IOException {
 
-            if (columnProperty != null) {
-                Class<?> returnType = columnProperty.getter.getReturnType();
+        // We should never call this method with a primitive type.
+        assert Types.getType(object.getClass()) == null;
 
-                Object value = readColumn(rs, j, returnType);
+        for (int j = 0; j < plan.columns.length; j++) {
 
-                foundColumns.add(columnName);
+            Object value = readColumn(rs, plan.columns[j], plan.columnTypes[j], plan.columnNames[j], plan.properties[j].propertyType);
 
-                if (value != null) {
-                    try {
-                        columnProperty.setter.invoke(object, value);
-                    } catch (IllegalArgumentException e) {
-                        String msg = "Object " + objectClass + ". Column: " + columnName + " Type of property: " + returnType + " - Type read: " + value.getClass() + " VALUE: " + value;
-                        throw new PersismException(msg, e);
-                    }
-                }
+            if (value != null) {
+                setValue(object, plan, j, value);
+            } else if (defaults != null) {
+                plan.properties[j].setValue(object, defaults[j], fieldAccess);
             }
         }
+        setLazyValues(object, plan);
+    }
+
+    // Lazy properties get a LazyValue loading the column by primary key with this session
+    private void setLazyValues(Object object, RowPlan plan) {
+        for (int j = 0; j < plan.lazyProperties.length; j++) {
+            String column = plan.lazyColumns[j];
+            Class<?> lazyType = plan.lazyProperties[j].lazyType;
+            plan.lazyProperties[j].setValue(object, new LazyValue<>(() -> loadLazy(object, column, lazyType)), fieldAccess);
+        }
+    }
 
-        // This is doing a similar check to above but on the ResultSet itself.
-        // This tests for when a user writes their own SQL and forgets a column.
-        if (foundColumns.size() < properties.keySet().size()) {
+    // Lazy properties of objects copied by the QueryCache get a LazyValue loading the column with this session
+    void setLazyValues(Object object) {
+        if (object.getClass().getAnnotation(NotTable.class) != null) {
+            return;
+        }
+        for (Map.Entry<String, PropertyInfo> entry : metaData.getTableColumnsPropertyInfo(object.getClass(), connection).entrySet()) {
+            PropertyInfo propertyInfo = entry.getValue();
+            if (propertyInfo.lazy) {
+                String column = entry.getKey();
+                Class<?> lazyType = propertyInfo.lazyType;
+                propertyInfo.setValue(object, new LazyValue<>(() -> loadLazy(object, column, lazyType)), fieldAccess);
+            }
+        }
+    }
 
-            Set<String> missing = new HashSet<>(columnCount);
-            missing.addAll(properties.keySet());
-            missing.removeAll(foundColumns);
+    private <T> T loadLazy(Object object, String column, Class<T> lazyType) {
+        Class<?> objectClass = object.getClass();
+        Map<String, PropertyInfo> properties = metaData.getTableColumnsPropertyInfo(objectClass, connection);
+        List<String> primaryKeys = metaData.getPrimaryKeys(objectClass, connection);
+        Object[] params = new Object[primaryKeys.size()];
+        for (int j = 0; j < params.length; j++) {
+            params[j] = properties.get(primaryKeys.get(j)).getValue(object, fieldAccess);
+        }
+        return fetch(lazyType, metaData.getLazyStatement(objectClass, column, connection), params);
+    }
 
-            // todo maybe strict mode off logs warn? Should we do this if this is Query vs Table?
-            throw new PersismException("Object " + objectClass + " was not properly initialized. Some properties not initialized by the queried columns: " + foundColumns + " Missing:" + missing);
+    // Property value to write - the value of LazyValue properties
+    private Object getWriteValue(PropertyInfo propertyInfo, Object object) {
+        Object value = propertyInfo.getValue(object, fieldAccess);
+        if (propertyInfo.lazy && value != null) {
+            return ((LazyValue<?>) value).peek();
         }
+        return value;
+    }
 
-        if (object instanceof Persistable) {
-            // Save this object initial state to later detect changed properties
-            ((Persistable) object).saveReadState();
+    private void lazyValuesSaved(Object object, Map<String, PropertyInfo> properties) {
+        for (PropertyInfo propertyInfo : properties.values()) {
+            if (propertyInfo.lazy) {
+                LazyValue<?> value = (LazyValue<?>) propertyInfo.getValue(object, fieldAccess);
+                if (value != null) {
+                    value.saved();
+                }
+            }
         }
+    }
 
-        return (T) object;
+    private void setValue(Object object, RowPlan plan, int j, Object value) {
+        PropertyInfo columnProperty = plan.properties[j];
+        try {
+            columnProperty.setValue(object, value, fieldAccess);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            String msg = "Object " + object.getClass() + ". Column: " + plan.columnNames[j] + " Type of property: " + columnProperty.propertyType + " - Type read: " + value.getClass() + " VALUE: " + value;
+            throw new PersismException(msg, e);
+        }
     }
 
     private Object readColumn(ResultSet rs, int column, Class<?> returnType) throws SQLException, IOException {
         ResultSetMetaData rsmd = rs.getMetaData();
-        int sqlColumnType = rsmd.getColumnType(column);
-        String columnName = rsmd.getColumnLabel(column);
+        return readColumn(rs, column, getColumnType(rsmd.getColumnType(column), returnType), rsmd.getColumnLabel(column), returnType);
+    }
 
+    private Types getColumnType(int sqlColumnType, Class<?> returnType) {
         if (returnType.isEnum()) {
             // Some DBs may read an enum type as other 1111 - we can tell it here to read it as a string.
             sqlColumnType = java.sql.Types.CHAR;
         }
 
+        Types columnType = Types.convert(sqlColumnType); // note this could be null if we can't match a type
+        if (columnType == null) {
+            log.warn("Column type not known for SQL type " + sqlColumnType, new Throwable());
+        }
+        return columnType;
+    }
+
+    // columnType and columnName are resolved by the caller (see RowPlan) so we don't go to ResultSetMetaData for each row.
+    private Object readColumn(ResultSet rs, int column, Types columnType, String columnName, Class<?> returnType) throws SQLException, IOException {
         Object value;
 
-        Types columnType = Types.convert(sqlColumnType); // note this could be null if we can't match a type
         if (columnType != null) {
 
             switch (columnType) {
@@ -675,28 +1851,12 @@ public final class Session implements AutoCloseable {
 
                 case ClobType:
                     Clob clob = rs.getClob(column);
-                    try (InputStream in = clob.getAsciiStream()) {
-                        StringWriter writer = new StringWriter();
-
-                        int c = -1;
-                        while ((c = in.read()) != -1) {
-                            writer.write(c);
-                        }
-                        writer.flush();
-                        value = writer.toString();
-                    }
+                    value = clob == null ? null : readClob(clob, returnType);
                     break;
 
                 case BlobType:
-                    byte[] buffer = new byte[1024];
                     Blob blob = rs.getBlob(column);
-                    try (InputStream in = blob.getBinaryStream()) {
-                        ByteArrayOutputStream bos = new ByteArrayOutputStream((int) blob.length());
-                        for (int len; (len = in.read(buffer)) != -1; ) {
-                            bos.write(buffer, 0, len);
-                        }
-                        value = bos.toByteArray();
-                    }
+                    value = blob == null ? null : readBlob(blob, returnType);
                     break;
 
                 case IntegerType:
@@ -760,7 +1920,6 @@ public final class Session implements AutoCloseable {
             }
 
         } else {
-            log.warn("Column type not known for SQL type " + sqlColumnType, new Throwable());
             value = rs.getObject(column);
         }
 
@@ -772,365 +1931,227 @@ public final class Session implements AutoCloseable {
         return value;
     }
 
-    // Make a sensible conversion of the value type from the DB and the property type defined
-    // on the Data class - or the value type from the property to the statement parameter.
-    private Object convert(Object value, Class<?> targetType, String columnName) {
-        assert value != null;
-
-        Types valueType = Types.getType(value.getClass());
-
-        if (valueType == null) {
-            log.warn("Conversion: Unknown Persism type " + value.getClass() + " - no conversion performed.");
-            return value;
+    // Characters are read in chunks straight into an array of the CLOB length - the array backs the char[] returned
+    // so the value is only held once (String makes one copy). Readers are streamed - see streamClob.
+    private Object readClob(Clob clob, Class<?> returnType) throws SQLException, IOException {
+        Types type = Types.getType(returnType);
+        if (type == Types.ReaderType) {
+            return streamClob(clob);
         }
 
-        Object returnValue = value;
-
-        // try to convert or cast the value to the proper type.
-        switch (valueType) {
-
-            case booleanType:
-            case BooleanType:
-                log.debug("BooleanType");
-                break;
-
-            case byteType:
-            case ByteType:
-            case shortType:
-            case ShortType:
-                log.debug(valueType);
-                break;
-            // TODO test out short and byte - JDBC tends to read single byte as short
-            // Might need byte to bool also upcasting can cause errors
-            case integerType:
-            case IntegerType:
-                // int to bool
-                if (targetType.equals(Boolean.class) || targetType.equals(boolean.class)) {
-                    returnValue = Integer.valueOf("" + value) == 0 ? false : true;
-
-                } else if (targetType.equals(Time.class)) {
-                    // SQLite when a Time is defined VIA a convert from LocalTime via Time.valueOf (see getContactForTest)
-                    returnValue = new Time(((Integer) value).longValue());
-
-                } else if (targetType.equals(LocalTime.class)) {
-                    // SQLite for Time SQLite sees Long, for LocalTime it sees Integer
-                    returnValue = new Time((Integer) value).toLocalTime();
-                }
-                break;
-
-            case longType:
-            case LongType:
-                long lval = Long.valueOf("" + value);
-                if (targetType.equals(java.sql.Date.class)) {
-                    returnValue = new java.sql.Date(lval);
-
-                } else if (targetType.equals(java.util.Date.class)) {
-                    returnValue = new java.util.Date(lval);
-
-                } else if (targetType.equals(Timestamp.class)) {
-                    returnValue = new Timestamp(lval);
-
-                } else if (targetType.equals(Integer.class) || targetType.equals(int.class)) {
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is INT and column is LONG");
-                    returnValue = Integer.parseInt("" + lval);
-
-                } else if (targetType.equals(LocalDate.class)) {
-                    // SQLite reads long as date.....
-                    returnValue = new Timestamp(lval).toLocalDateTime().toLocalDate();
-
-                } else if (targetType.equals(LocalDateTime.class)) {
-                    returnValue = new Timestamp(lval).toLocalDateTime();
-
-                } else if (targetType.equals(Time.class)) {
-                    // SQLite.... Again.....
-                    returnValue = new Time((Long) value);
-                }
-                break;
-
-            case floatType:
-            case FloatType:
-                log.debug("FloatType");
-                break;
-
-            case doubleType:
-            case DoubleType:
-                Double dbl = (Double) value;
-                // float or doubles to BigDecimal
-                if (targetType.equals(BigDecimal.class)) {
-                    returnValue = new BigDecimal("" + value);
-
-                } else if (targetType.equals(Float.class) || targetType.equals(float.class)) {
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is FLOAT and column is DOUBLE");
-                    returnValue = dbl.floatValue();
-
-                } else if (targetType.equals(Integer.class) || targetType.equals(int.class)) {
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is INT and column is DOUBLE");
-                    returnValue = dbl.intValue();
-
-                } else if (targetType.equals(Long.class) || targetType.equals(long.class)) {
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Long and column is DOUBLE");
-                    returnValue = dbl.longValue();
-                }
-                break;
-
-            case BigDecimalType:
-                if (targetType.equals(Float.class) || targetType.equals(float.class)) {
-                    returnValue = ((Number) value).floatValue();
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Float and column is BigDecimal");
-
-                } else if (targetType.equals(Double.class) || targetType.equals(double.class)) {
-                    returnValue = ((Number) value).doubleValue();
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Double and column is BigDecimal");
-
-                } else if (targetType.equals(Long.class) || targetType.equals(long.class)) {
-                    returnValue = ((Number) value).longValue();
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Long and column is BigDecimal");
-
-                } else if (targetType.equals(Integer.class) || targetType.equals(int.class)) {
-                    returnValue = ((Number) value).intValue();
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Integer and column is BigDecimal");
-
-                } else if (targetType.equals(Boolean.class) || targetType.equals(boolean.class)) {
-                    // BigDecimal to Boolean. Oracle (sigh) - Additional for a Char to Boolean as then (see TestOracle for links)
-                    returnValue = ((Number) value).intValue() == 1;
-                    warnNoDuplicates("Possible overflow column " + columnName + " - Property is Boolean and column is BigDecimal - seems a bit overkill?");
-
-                } else if (targetType.equals(String.class)) {
-                    returnValue = (value).toString();
-                }
-                break;
-
-            case StringType:
-                java.util.Date dval;
-                String format;
-                if (("" + value).length() > "yyyy-MM-dd".length()) {
-                    format = "yyyy-MM-dd hh:mm:ss";
-                } else {
-                    format = "yyyy-MM-dd";
-                }
-                DateFormat df = new SimpleDateFormat(format);
-
-                // Read a string but we want a date
-                if (targetType.equals(java.util.Date.class) || targetType.equals(java.sql.Date.class)) {
-                    // This condition occurs in SQLite when you have a datetime with default annotated
-                    // the format returned is 2012-06-02 19:59:49
-                    // Used for SQLite returning dates as Strings under some conditions
-                    // SQL or others may return STRING yyyy-MM-dd for older legacy 'date' type.
-                    // https://docs.microsoft.com/en-us/sql/t-sql/data-types/date-transact-sql?view=sql-server-ver15
-                    dval = tryParseDate(value, targetType, columnName, df);
-
-                    if (targetType.equals(java.sql.Date.class)) {
-                        returnValue = new java.sql.Date(dval.getTime());
-                    } else {
-                        returnValue = dval;
-                    }
-
-                } else if (targetType.equals(Timestamp.class)) {
-                    returnValue = tryParseTimestamp(value, targetType, columnName);
-
-                } else if (targetType.equals(LocalDate.class)) {
-                    // JTDS
-                    dval = tryParseDate(value, targetType, columnName, df);
-                    returnValue = dval.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-
-                } else if (targetType.equals(LocalDateTime.class)) {
-                    // JTDS
-                    dval = tryParseDate(value, targetType, columnName, df);
-                    returnValue = dval.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-
-                } else if (targetType.isEnum()) {
-                    // If this is an enum do a case insensitive comparison
-                    Object[] enumConstants = targetType.getEnumConstants();
-                    for (Object element : enumConstants) {
-                        if (("" + value).equalsIgnoreCase(element.toString())) {
-                            returnValue = element;
-                            break;
-                        }
-                    }
-
-                } else if (targetType.equals(UUID.class)) {
-                    returnValue = UUID.fromString("" + value);
-
-                } else if (targetType.equals(Boolean.class) || targetType.equals(boolean.class)) {
-                    // String to Boolean - true or 1 - otherwise false (or null)
-                    String bval = "" + value;
-                    returnValue = bval.equalsIgnoreCase("true") || bval.equals("1");
-
-                } else if (targetType.equals(Time.class)) {
-                    // MSSQL works, JTDS returns Varchar in format below with varying decimal numbers
-                    // which won't format unless I use Exact so I chop of the milliseconds.
-                    DateFormat timeFormat = new SimpleDateFormat("hh:mm:ss");
-                    String sval = "" + value;
-                    if (sval.indexOf('.') > -1) {
-                        sval = sval.substring(0, sval.indexOf('.'));
+        int count;
+        char[] chars;
+        try (Reader in = clob.getCharacterStream()) {
+            chars = new char[initialStreamLength(clob.length())];
+            count = 0;
+            for (int n; (n = in.read(chars, count, chars.length - count)) != -1; ) {
+                count += n;
+                if (count == chars.length) {
+                    int c = in.read();
+                    if (c == -1) {
+                        break;
                     }
-                    dval = tryParseDate(sval, targetType, columnName, timeFormat);
-                    returnValue = new Time(dval.getTime());
+                    // length was wrong (some drivers report bytes)
+                    chars = Arrays.copyOf(chars, grow(chars.length));
+                    chars[count++] = (char) c;
+                }
+            }
+        }
 
-                } else if (targetType.equals(LocalTime.class)) {
-                    // JTDS Fails again...
-                    returnValue = LocalTime.parse("" + value);
+        if (type == Types.charArrayType) {
+            return count == chars.length ? chars : Arrays.copyOf(chars, count);
+        }
+        return new String(chars, 0, count);
+    }
 
-                } else if (targetType.equals(Character.class) || targetType.equals(char.class)) {
-                    String s = "" + value;
-                    if (s.length() > 0) {
-                        returnValue = s.charAt(0);
-                    }
+    // Same for BLOBs - the array backs the byte[] or ByteBuffer returned. InputStreams are streamed - see streamBlob.
+    private Object readBlob(Blob blob, Class<?> returnType) throws SQLException, IOException {
+        Types type = Types.getType(returnType);
+        if (type == Types.InputStreamType) {
+            return streamBlob(blob);
+        }
 
-                } else if (targetType.equals(BigDecimal.class)) {
-                    try {
-                        returnValue = new BigDecimal("" + value);
-                    } catch (NumberFormatException e) {
-                        String msg = "NumberFormatException: Column: " + columnName + " Type of property: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
-                        throw new PersismException(msg, e);
+        int count;
+        byte[] bytes;
+        try (InputStream in = blob.getBinaryStream()) {
+            bytes = new byte[initialStreamLength(blob.length())];
+            count = 0;
+            for (int n; (n = in.read(bytes, count, bytes.length - count)) != -1; ) {
+                count += n;
+                if (count == bytes.length) {
+                    int b = in.read();
+                    if (b == -1) {
+                        break;
                     }
+                    bytes = Arrays.copyOf(bytes, grow(bytes.length));
+                    bytes[count++] = (byte) b;
                 }
-                break;
-
-            case characterType:
-            case CharacterType:
-                log.debug("CharacterType");
-                break;
-
-            case LocalDateType:
-                log.debug("LocalDateType");
-                returnValue = java.sql.Date.valueOf((LocalDate) value);
-                break;
-
-            case LocalDateTimeType:
-                log.debug("LocalDateTimeType");
-                returnValue = Timestamp.valueOf((LocalDateTime) value);
-                break;
-
-            case LocalTimeType:
-                log.debug("LocalTimeType");
-                returnValue = Time.valueOf((LocalTime) value);
-                break;
-
-            case UtilDateType:
-            case SQLDateType:
-            case TimestampType:
-                if (targetType.equals(java.util.Date.class)) {
-                    returnValue = new java.util.Date(((Date) value).getTime());
-
-                } else if (targetType.equals(java.sql.Date.class)) {
-                    returnValue = new java.sql.Date(((Date) value).getTime());
-
-                } else if (targetType.equals(Timestamp.class)) {
-                    returnValue = new Timestamp(((Date) value).getTime());
-
-                } else if (targetType.equals(LocalDate.class)) {
-                    Date dt = new Date(((Date) value).getTime());
-                    returnValue = dt.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-
-                } else if (targetType.equals(LocalDateTime.class)) {
-                    Date dt = new Date(((Date) value).getTime());
-                    returnValue = dt.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-
-                } else if (targetType.equals(Time.class)) {
-                    // Oracle doesn't seem to have Time so we use Timestamp
-                    returnValue = new Time(((Date) value).getTime());
+            }
+        }
 
-                } else if (targetType.equals(LocalTime.class)) {
-                    // Oracle.... Sigh
-                    Date dt = (Date) value;
-                    returnValue = dt.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().toLocalTime();
-                }
-                break;
+        if (type == Types.ByteBufferType) {
+            return ByteBuffer.wrap(bytes, 0, count);
+        }
+        return count == bytes.length ? bytes : Arrays.copyOf(bytes, count);
+    }
 
-            case TimeType:
-                log.debug("TimeType");
-                if (targetType.equals(LocalTime.class)) {
-                    returnValue = LocalTime.parse("" + value);
+    // Reader values are copied through the reusable chunk buffer. A CLOB which fits in one chunk is returned from
+    // memory, a larger one is spilled to a temporary file (UTF-8) which is deleted when the Reader is closed (or on exit).
+    // The row moves on so the driver's stream cannot be handed out.
+    private Reader streamClob(Clob clob) throws SQLException, IOException {
+        if (charChunk == null) {
+            charChunk = new char[STREAM_CHUNK_SIZE];
+        }
+        try (Reader in = clob.getCharacterStream()) {
+            int count = fill(in, charChunk);
+            if (count < charChunk.length) {
+                return new CharArrayReader(Arrays.copyOf(charChunk, count));
+            }
+            Path file = Files.createTempFile(TEMP_FILE_PREFIX, ".clob");
+            try (Writer out = new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8)) {
+                for (int n = count; n != -1; n = in.read(charChunk)) {
+                    out.write(charChunk, 0, n);
                 }
-                break;
-
-            case InstantType:
-            case OffsetDateTimeType:
-            case ZonedDateTimeType:
-                log.warn(valueType + " not yet supported", new Throwable());
-                break;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new InputStreamReader(new TempFileInputStream(file), StandardCharsets.UTF_8);
+        }
+    }
 
-            case byteArrayType:
-            case ByteArrayType:
-                log.debug("ByteArrayType");
-                if (targetType.equals(UUID.class)) {
-                    returnValue = Util.asUuid((byte[]) value);
+    // Same for InputStream values
+    private InputStream streamBlob(Blob blob) throws SQLException, IOException {
+        if (byteChunk == null) {
+            byteChunk = new byte[STREAM_CHUNK_SIZE];
+        }
+        try (InputStream in = blob.getBinaryStream()) {
+            int count = fill(in, byteChunk);
+            if (count < byteChunk.length) {
+                return new ByteArrayInputStream(Arrays.copyOf(byteChunk, count));
+            }
+            Path file = Files.createTempFile(TEMP_FILE_PREFIX, ".blob");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                for (int n = count; n != -1; n = in.read(byteChunk)) {
+                    out.write(byteChunk, 0, n);
                 }
-                break;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new TempFileInputStream(file);
+        }
+    }
 
-            case ClobType:
-            case BlobType:
-                log.warn("why? Clob is read as String, Blob as byte array - see readColumn method", new Throwable());
-                break;
+    // reads until the buffer is full or the stream ends
+    private static int fill(Reader in, char[] buffer) throws IOException {
+        int count = 0;
+        for (int n; count < buffer.length && (n = in.read(buffer, count, buffer.length - count)) != -1; ) {
+            count += n;
+        }
+        return count;
+    }
 
-            case EnumType:
-                // No need to convert it here.
-                // If it's being used for the property setter then it's OK
-                // If it's being used by setParameters it's converted to String
-                // The String case above converts from the String to the Enum
-                log.debug("EnumType");
-                break;
+    private static int fill(InputStream in, byte[] buffer) throws IOException {
+        int count = 0;
+        for (int n; count < buffer.length && (n = in.read(buffer, count, buffer.length - count)) != -1; ) {
+            count += n;
+        }
+        return count;
+    }
 
-            case UUIDType:
-                log.debug("UUIDType");
-                if (targetType.equals(Blob.class) || targetType.equals(byte[].class) || targetType.equals(Byte[].class)) {
-                    returnValue = Util.asBytes((UUID) value);
-                }
-                break;
+    private static int initialStreamLength(long length) {
+        if (length <= 0) {
+            return STREAM_CHUNK_SIZE;
+        }
+        return (int) Math.min(length, MAX_ARRAY_LENGTH);
+    }
 
-            case ObjectType:
-                log.debug("ObjectType");
-                break;
+    private static int grow(int length) {
+        if (length >= MAX_ARRAY_LENGTH) {
+            throw new PersismException("Column value is too large to read into memory");
         }
-        return returnValue;
+        return (int) Math.min((long) length + Math.max(length >> 1, STREAM_CHUNK_SIZE), MAX_ARRAY_LENGTH);
     }
 
-    /*
-     * Used by convert for convenience - common possible parsing
-     */
-    private Date tryParseDate(Object value, Class targetType, String columnName, DateFormat df) throws PersismException {
+    // JDBC 3 drivers (jTDS) don't have setCharacterStream and setBinaryStream without a length and throw
+    // AbstractMethodError (or SQLFeatureNotSupportedException). Then the length overloads are used - with the length
+    // of in memory and temporary file streams, otherwise the stream is read into memory first to get its length.
+    private static void setCharacterStream(PreparedStatement st, int n, Reader in) throws SQLException {
         try {
-            return df.parse("" + value);
-        } catch (ParseException e) {
-            String msg = e.getMessage() + ". Column: " + columnName + " Target Conversion: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
-            throw new PersismException(msg, e);
+            st.setCharacterStream(n, in);
+        } catch (AbstractMethodError | SQLFeatureNotSupportedException e) {
+            char[] chars;
+            int count = 0;
+            try {
+                chars = new char[STREAM_CHUNK_SIZE];
+                for (int c; (c = in.read(chars, count, chars.length - count)) != -1; ) {
+                    count += c;
+                    if (count == chars.length) {
+                        chars = Arrays.copyOf(chars, grow(chars.length));
+                    }
+                }
+            } catch (IOException ioe) {
+                throw new PersismException(ioe.getMessage(), ioe);
+            }
+            st.setCharacterStream(n, new CharArrayReader(chars, 0, count), count);
         }
     }
 
-    private Timestamp tryParseTimestamp(Object value, Class targetType, String columnName) throws PersismException {
+    private static void setBinaryStream(PreparedStatement st, int n, InputStream in) throws SQLException {
         try {
-            return Timestamp.valueOf("" + value);
-        } catch (IllegalArgumentException e) {
-            String msg = e.getMessage() + ". Column: " + columnName + " Target Conversion: " + targetType + " - Type read: " + value.getClass() + " VALUE: " + value;
-            throw new PersismException(msg, e);
+            st.setBinaryStream(n, in);
+        } catch (AbstractMethodError | SQLFeatureNotSupportedException e) {
+            try {
+                if (in instanceof ByteArrayInputStream || in instanceof TempFileInputStream) {
+                    st.setBinaryStream(n, in, in.available());
+                    return;
+                }
+                byte[] bytes = new byte[STREAM_CHUNK_SIZE];
+                int count = 0;
+                for (int b; (b = in.read(bytes, count, bytes.length - count)) != -1; ) {
+                    count += b;
+                    if (count == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, grow(bytes.length));
+                    }
+                }
+                st.setBinaryStream(n, new ByteArrayInputStream(bytes, 0, count), count);
+            } catch (IOException ioe) {
+                throw new PersismException(ioe.getMessage(), ioe);
+            }
         }
     }
 
-    private <T> T getTypedValueReturnedFromGeneratedKeys(Class<T> objectClass, ResultSet rs) throws SQLException {
+    // Make a sensible conversion of the value type from the DB and the property type defined
+    // on the Data class - or the value type from the property to the statement parameter.
+    private Object convert(Object value, Class<?> targetType, String columnName) {
+        return Converters.convert(value, targetType, columnName);
+    }
+
+    private <T> T getTypedValueReturnedFromGeneratedKeys(Class<T> objectClass, ResultSet rs, int column) throws SQLException {
 
         Object value = null;
         Types type = Types.getType(objectClass);
 
         if (type == null) {
             log.warn("Unhandled type " + objectClass);
-            return (T) rs.getObject(1);
+            return (T) rs.getObject(column);
         }
 
         switch (type) {
 
             case integerType:
             case IntegerType:
-                value = rs.getInt(1);
+                value = rs.getInt(column);
                 break;
 
             case longType:
             case LongType:
-                value = rs.getLong(1);
+                value = rs.getLong(column);
                 break;
 
             default:
-                value = rs.getObject(1);
+                value = rs.getObject(column);
         }
         return (T) value;
     }
@@ -1146,7 +2167,14 @@ public final class Session implements AutoCloseable {
             if (param != null) {
 
                 Types type = Types.getType(param.getClass());
-                assert type != null;
+                if (type == null) {
+                    // custom type - use its registered converter (see Converters.register) or setObject
+                    param = Converters.toKnownType(param);
+                    type = Types.getType(param.getClass());
+                    if (type == null) {
+                        type = Types.ObjectType;
+                    }
+                }
 
                 switch (type) {
 
@@ -1214,11 +2242,17 @@ public final class Session implements AutoCloseable {
                         st.setTimestamp(n, (Timestamp) param);
                         break;
 
-                    // THESE are converted to Timestamp (or Time) by convert method.
+                    // Properties are converted to Timestamp (or Time) by convert method. Query parameters are not.
                     case LocalTimeType:
+                        st.setTime(n, (Time) convert(param, Time.class, null));
+                        break;
+
                     case LocalDateType:
+                        st.setDate(n, (java.sql.Date) convert(param, java.sql.Date.class, null));
+                        break;
+
                     case LocalDateTimeType:
-                        log.warn(type + " why would this occur in setParameters?", new Throwable());
+                        st.setTimestamp(n, (Timestamp) convert(param, Timestamp.class, null));
                         break;
 
                     case OffsetDateTimeType:
@@ -1233,11 +2267,38 @@ public final class Session implements AutoCloseable {
                         st.setBytes(n, (byte[]) param);
                         break;
 
+                    case charArrayType:
+                        char[] chars = (char[]) param;
+                        st.setCharacterStream(n, new CharArrayReader(chars), chars.length);
+                        break;
+
+                    // Streams are passed to the driver which reads them as the statement executes.
+                    case ReaderType:
+                        setCharacterStream(st, n, (Reader) param);
+                        break;
+
+                    case InputStreamType:
+                        setBinaryStream(st, n, (InputStream) param);
+                        break;
+
+                    case ByteBufferType:
+                        // the buffer position is left as is so the same buffer can be written again
+                        ByteBuffer buffer = (ByteBuffer) param;
+                        if (buffer.hasArray()) {
+                            st.setBinaryStream(n, new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()), buffer.remaining());
+                        } else {
+                            byte[] bytes = new byte[buffer.remaining()];
+                            buffer.duplicate().get(bytes);
+                            st.setBytes(n, bytes);
+                        }
+                        break;
+
                     case ClobType:
+                        st.setClob(n, (Clob) param);
+                        break;
+
                     case BlobType:
-                        // Clob is converted to String Blob is converted to byte array
-                        // So this should not occur.
-                        log.warn(type + " why would this occur in setParameters?", new Throwable());
+                        st.setBlob(n, (Blob) param);
                         break;
 
                     case EnumType:
@@ -1273,9 +2334,8 @@ public final class Session implements AutoCloseable {
     }
 
     // Prevent duplicate "Possible overflow column" and other possibly repeating messages
-    private static void warnNoDuplicates(String message) {
-        if (!warnings.contains(message)) {
-            warnings.add(message);
+    static void warnNoDuplicates(String message) {
+        if (warnings.add(message)) {
             log.warn(message);
         }
     }
@@ -0,0 +1,163 @@
+package net.sf.persism;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements for a Session keyed by SQL and generated key columns.
+ * <p>
+ * Statements are checked out while in use (so an open Cursor and another query with the same SQL get different
+ * statements) and returned with release, which clears the parameters instead of closing the statement. The least
+ * recently used statement is closed when the cache is full. Like Session this is not thread safe.
+ */
+final class StatementCache {
+
+    private static final Log log = Log.getLogger(StatementCache.class);
+
+    private final int maxSize;
+
+    // idle statements in least recently used order
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+
+    // statements checked out and the key to return them under
+    private final Map<Statement, Key> inUse = new IdentityHashMap<>();
+
+    private long hits;
+    private long misses;
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    PreparedStatement prepareStatement(Connection connection, String sql, String[] keyColumns) throws SQLException {
+        Key key = new Key(sql, keyColumns, false);
+        PreparedStatement st = checkout(key);
+        if (st == null) {
+            if (keyColumns != null) {
+                st = connection.prepareStatement(sql, keyColumns);
+            } else {
+                st = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            }
+            inUse.put(st, key);
+        }
+        return st;
+    }
+
+    CallableStatement prepareCall(Connection connection, String sql) throws SQLException {
+        Key key = new Key(sql, null, true);
+        CallableStatement st = (CallableStatement) checkout(key);
+        if (st == null) {
+            st = connection.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            inUse.put(st, key);
+        }
+        return st;
+    }
+
+    /**
+     * Return the statement to the cache. Statements we did not prepare or that fail to reset are closed.
+     */
+    void release(Statement st) {
+        Key key = inUse.remove(st);
+        if (key == null) {
+            close(st);
+            return;
+        }
+        try {
+            ((PreparedStatement) st).clearParameters();
+            st.clearWarnings();
+        } catch (SQLException e) {
+            log.debug("release: could not reset statement for " + key.sql + " " + e.getMessage());
+            close(st);
+            return;
+        }
+
+        // Another statement for the same SQL was returned first
+        if (statements.containsKey(key)) {
+            close(st);
+            return;
+        }
+        statements.put(key, (PreparedStatement) st);
+        if (statements.size() > maxSize) {
+            Iterator<PreparedStatement> it = statements.values().iterator();
+            close(it.next());
+            it.remove();
+        }
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Close idle statements. Statements in use are closed when they are released.
+     */
+    void close() {
+        for (PreparedStatement st : statements.values()) {
+            close(st);
+        }
+        statements.clear();
+        inUse.clear();
+    }
+
+    private PreparedStatement checkout(Key key) {
+        PreparedStatement st = statements.remove(key);
+        if (st != null) {
+            hits++;
+            inUse.put(st, key);
+        } else {
+            misses++;
+        }
+        return st;
+    }
+
+    private static void close(Statement st) {
+        try {
+            st.close();
+        } catch (SQLException e) {
+            log.warn(e.getMessage(), e);
+        }
+    }
+
+    private static final class Key {
+        final String sql;
+        final String[] keyColumns;
+        final boolean callable;
+
+        Key(String sql, String[] keyColumns, boolean callable) {
+            this.sql = sql;
+            this.keyColumns = keyColumns;
+            this.callable = callable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return callable == key.callable && sql.equals(key.sql) && Arrays.equals(keyColumns, key.keyColumns);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Arrays.hashCode(keyColumns);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package net.sf.persism;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column of String values. Values are dictionary encoded - each row holds an int code into a dictionary of the
+ * distinct values - so repeated text (status, category, country etc.) is only held once. If the column turns out
+ * not to be low cardinality (more than 256 distinct values and more than half the rows distinct) the vector
+ * switches to holding the Strings directly.
+ *
+ * @see ColumnarResult
+ */
+public final class StringVector extends ColumnVector {
+
+    private static final int MIN_DICTIONARY_SIZE = 256;
+
+    // dictionary encoded - null once the vector holds the Strings directly
+    private int[] codes;
+    private String[] dictionary;
+    private int dictionarySize;
+    private Map<String, Integer> lookup;
+
+    private String[] values;
+
+    StringVector(int capacity) {
+        codes = new int[capacity];
+        dictionary = new String[16];
+        lookup = new HashMap<>(32);
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return the value at index or null
+     */
+    public String get(int index) {
+        checkIndex(index);
+        if (codes == null) {
+            return values[index];
+        }
+        int code = codes[index];
+        return code < 0 ? null : dictionary[code];
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return get(index);
+    }
+
+    /**
+     * @return true if the values are dictionary encoded
+     */
+    public boolean isDictionaryEncoded() {
+        return codes != null;
+    }
+
+    /**
+     * @param index row index (0 based)
+     * @return dictionary code of the value at index or -1 if it is null. Rows with equal values have equal codes.
+     * @throws PersismException if the vector is not dictionary encoded
+     */
+    public int getCode(int index) {
+        checkIndex(index);
+        if (codes == null) {
+            throw new PersismException("StringVector is not dictionary encoded");
+        }
+        return codes[index];
+    }
+
+    /**
+     * @return copy of the distinct values indexed by code or null if the vector is not dictionary encoded
+     */
+    public String[] getDictionary() {
+        return codes == null ? null : Arrays.copyOf(dictionary, dictionarySize);
+    }
+
+    @Override
+    String getStringValue(int index) {
+        return get(index);
+    }
+
+    void add(String value) {
+        if (codes == null) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, grow(size));
+            }
+            values[size++] = value;
+            return;
+        }
+
+        int code = -1;
+        if (value != null) {
+            Integer existing = lookup.get(value);
+            if (existing != null) {
+                code = existing;
+            } else if (dictionarySize >= MIN_DICTIONARY_SIZE && dictionarySize > size / 2) {
+                decode();
+                add(value);
+                return;
+            } else {
+                if (dictionarySize == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+                }
+                code = dictionarySize;
+                dictionary[dictionarySize++] = value;
+                lookup.put(value, code);
+            }
+        }
+
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, grow(size));
+        }
+        codes[size++] = code;
+    }
+
+    // switch to holding the Strings directly
+    private void decode() {
+        values = new String[codes.length];
+        for (int j = 0; j < size; j++) {
+            values[j] = codes[j] < 0 ? null : dictionary[codes[j]];
+        }
+        codes = null;
+        dictionary = null;
+        lookup = null;
+    }
+
+    @Override
+    void read(ResultSet rs, int column) throws SQLException {
+        String value = rs.getString(column);
+        add(value);
+        if (value == null) {
+            setNull(size - 1);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return codes != null ? codes.length : values.length;
+    }
+}
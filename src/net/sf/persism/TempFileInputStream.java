@@ -0,0 +1,33 @@
+package net.sf.persism;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a temporary file and deletes it when closed. Used for CLOB and BLOB values read as Reader or InputStream
+ * which are larger than one chunk - see Session.readClob and Session.readBlob.
+ * <p>
+ * The stream is handed to the caller who owns it and should close it. The file is also marked deleteOnExit so it does
+ * not outlive the JVM when the stream is never closed.
+ */
+final class TempFileInputStream extends FilterInputStream {
+
+    private final Path file;
+
+    TempFileInputStream(Path file) throws IOException {
+        super(Files.newInputStream(file));
+        this.file = file;
+        file.toFile().deleteOnExit();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
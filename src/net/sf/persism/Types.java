@@ -1,7 +1,10 @@
 package net.sf.persism;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Time;
@@ -48,8 +51,12 @@ enum Types {
     ZonedDateTimeType(java.time.ZonedDateTime.class),
     byteArrayType(byte[].class),
     ByteArrayType(Byte[].class),
+    charArrayType(char[].class),
     ClobType(Clob.class),
     BlobType(Blob.class),
+    ReaderType(Reader.class),
+    InputStreamType(InputStream.class),
+    ByteBufferType(ByteBuffer.class),
     EnumType(Enum.class),
     UUIDType(UUID.class),
     ObjectType(Object.class);
@@ -66,17 +73,42 @@ enum Types {
         this.type = type;
     }
 
-    public static <T> Types getType(Class<T> type) {
-        if (type.isEnum()) {
-            return EnumType;
-        }
+    // Types for each class. Computed once per class - null (not a Persism type) is cached as well.
+    private static final ClassValue<Types> types = new ClassValue<Types>() {
+        @Override
+        protected Types computeValue(Class<?> type) {
+            if (type.isEnum()) {
+                return EnumType;
+            }
 
-        for (Types t : values()) {
-            if (t.type.equals(type)) {
-                return t;
+            for (Types t : values()) {
+                if (t.type.equals(type)) {
+                    return t;
+                }
+            }
+
+            // Driver LOBs, streams and buffers are subclasses (JdbcClob, StringReader, HeapByteBuffer etc.)
+            if (Clob.class.isAssignableFrom(type)) {
+                return ClobType;
+            }
+            if (Blob.class.isAssignableFrom(type)) {
+                return BlobType;
             }
+            if (Reader.class.isAssignableFrom(type)) {
+                return ReaderType;
+            }
+            if (InputStream.class.isAssignableFrom(type)) {
+                return InputStreamType;
+            }
+            if (ByteBuffer.class.isAssignableFrom(type)) {
+                return ByteBufferType;
+            }
+            return null;
         }
-        return null;
+    };
+
+    public static <T> Types getType(Class<T> type) {
+        return types.get(type);
     }
 
     public static Types convert(int sqlType) {
@@ -2,6 +2,7 @@ package net.sf.persism;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -37,6 +38,14 @@ final class Util {
 
     }
 
+    // null or the default value for primitive types (0, false etc.)
+    static Object defaultValue(Class<?> type) {
+        if (type.isPrimitive()) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+        return null;
+    }
+
     static void cleanup(Statement st, ResultSet rs) {
         try {
             if (rs != null) {
@@ -0,0 +1,20 @@
+package net.sf.persism.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that Persism should read and write the fields backing the properties of this class directly instead of
+ * calling the getters and setters. Use it for data classes with trivial getters and setters.
+ * <p>
+ * Properties are still discovered from the getters and setters. Properties without a field of the same name (case
+ * insensitive) and type, and final fields, keep using the getter or setter. Field access can also be turned on for
+ * all classes with Session.setFieldAccess.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface FieldAccess {
+
+}
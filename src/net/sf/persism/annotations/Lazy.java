@@ -0,0 +1,21 @@
+package net.sf.persism.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the column of this property is not read with the rest of the object. Use this for large CLOB or BLOB
+ * columns which are not always needed. The property type should be LazyValue (LazyValue&lt;String&gt; for
+ * example) and the class should map a table with primary keys. Fetches and queries set a LazyValue which reads the column
+ * by primary key the first time its value is requested.
+ * This annotation can appear on the class field, getter or setter.
+ *
+ * @see net.sf.persism.LazyValue
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = {ElementType.METHOD, ElementType.FIELD})
+public @interface Lazy {
+
+}
@@ -0,0 +1,18 @@
+package net.sf.persism.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the persism-processor annotation processor should generate a mapper for this class.
+ * Classes annotated with Table or NotTable get one as well - use this annotation for the other data classes.
+ * <p>
+ * The annotation is only needed at compile time. Persism works the same without the processor.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Mapped {
+
+}
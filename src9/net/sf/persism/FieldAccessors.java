@@ -0,0 +1,81 @@
+package net.sf.persism;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Builds the direct field accessors used by PropertyInfo for field access (see FieldAccess annotation and
+ * Session.setFieldAccess).
+ * <p>
+ * This is the Java 9 version (META-INF/versions/9 in the multi-release jar) which uses a VarHandle for the field
+ * from a private lookup in the declaring class so setAccessible is not needed.
+ */
+final class FieldAccessors {
+
+    private static final Log log = Log.getLogger(FieldAccessors.class);
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private FieldAccessors() {
+    }
+
+    /**
+     * @return reader for the field or null if we cannot access it.
+     */
+    static Function<Object, Object> getter(Field field) {
+        VarHandle varHandle = varHandle(field);
+        if (varHandle == null) {
+            return null;
+        }
+        MethodHandle handle = varHandle.toMethodHandle(VarHandle.AccessMode.GET).asType(getterType);
+
+        return object -> {
+            try {
+                return handle.invokeExact(object);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * @return writer for the field or null if we cannot access it (or it is final).
+     */
+    static BiConsumer<Object, Object> setter(Field field) {
+        VarHandle varHandle = varHandle(field);
+        // VarHandles for final fields are read only
+        if (varHandle == null || !varHandle.isAccessModeSupported(VarHandle.AccessMode.SET)) {
+            return null;
+        }
+        MethodHandle handle = varHandle.toMethodHandle(VarHandle.AccessMode.SET).asType(setterType);
+
+        return Accessors.widening(field.getType(), (object, value) -> {
+            try {
+                handle.invokeExact(object, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new PersismException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private static VarHandle varHandle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), lookup).unreflectVarHandle(field);
+        } catch (RuntimeException | IllegalAccessException e) {
+            log.debug("varHandle: " + field + " not accessible. " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.sf.persism;
+
+import java.util.Objects;
+
+/**
+ * Adapts the Publisher returned by Session.publish to java.util.concurrent.Flow so it can be used with any Reactive
+ * Streams or JDK Flow consumer.
+ * <pre>{@code
+ * java.util.concurrent.Flow.Publisher<Customer> publisher =
+ *         FlowAdapters.toFlowPublisher(session.publish(Customer.class, "SELECT * FROM Customers"));
+ * }</pre>
+ * This class is only in the Java 9 version (META-INF/versions/9 in the multi-release jar) since
+ * java.util.concurrent.Flow is not available on Java 8. net.sf.persism.Flow mirrors it method for method so the
+ * adapters only delegate.
+ */
+public final class FlowAdapters {
+
+    private FlowAdapters() {
+    }
+
+    /**
+     * @param publisher Persism publisher - see Session.publish
+     * @param <T>       Type of items published
+     * @return java.util.concurrent.Flow.Publisher delegating to the publisher
+     */
+    public static <T> java.util.concurrent.Flow.Publisher<T> toFlowPublisher(Flow.Publisher<T> publisher) {
+        Objects.requireNonNull(publisher, "publisher");
+        return subscriber -> publisher.subscribe(new SubscriberAdapter<T>(Objects.requireNonNull(subscriber, "subscriber")));
+    }
+
+    // Persism Subscriber sending everything to a java.util.concurrent.Flow.Subscriber
+    private static final class SubscriberAdapter<T> implements Flow.Subscriber<T> {
+
+        private final java.util.concurrent.Flow.Subscriber<? super T> subscriber;
+
+        SubscriberAdapter(java.util.concurrent.Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscriber.onSubscribe(new java.util.concurrent.Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(T item) {
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+}
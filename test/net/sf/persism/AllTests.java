@@ -35,6 +35,10 @@ public class AllTests {
         theTestSuite.addTestSuite(TestNorthwind.class);
         theTestSuite.addTestSuite(TestPubs.class);
         theTestSuite.addTestSuite(TestMiscellaneous.class);
+        theTestSuite.addTestSuite(TestConverters.class);
+        theTestSuite.addTestSuite(TestFieldAccessors.class);
+        theTestSuite.addTestSuite(TestFlowAdapters.class);
+        theTestSuite.addTestSuite(TestPerformance.class);
 
         return theTestSuite;
     }
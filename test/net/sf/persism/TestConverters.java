@@ -0,0 +1,61 @@
+package net.sf.persism;
+
+import junit.framework.TestCase;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Tests for conversions which don't need a database.
+ */
+public final class TestConverters extends TestCase {
+
+    public void testParseDateTime() {
+        assertEquals(LocalDateTime.of(2012, 6, 2, 0, 0), DateTimes.parseDateTime("2012-06-02"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59, 49), DateTimes.parseDateTime("2012-06-02 19:59:49"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59, 49), DateTimes.parseDateTime("2012-06-02T19:59:49"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59), DateTimes.parseDateTime("2012-06-02 19:59"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59, 49, 123000000), DateTimes.parseDateTime("2012-06-02 19:59:49.123"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59, 49, 123456700), DateTimes.parseDateTime("2012-06-02 19:59:49.1234567"));
+
+        // not ISO - parsed by the formatter
+        assertEquals(LocalDateTime.of(2012, 6, 2, 9, 5, 0), DateTimes.parseDateTime("2012-6-2 9:05:00"));
+        assertEquals(LocalDateTime.of(2012, 6, 2, 19, 59, 49), DateTimes.parseDateTime("2012-06-02 19:59:49 +02:00"));
+
+        try {
+            DateTimes.parseDateTime("junk");
+            fail("junk s/b not parsed");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        try {
+            DateTimes.parseDateTime("2012-13-02");
+            fail("month 13 s/b not parsed");
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
+    public void testParseTime() {
+        assertEquals(LocalTime.of(12, 30, 15), DateTimes.parseTime("12:30:15"));
+        assertEquals(LocalTime.of(12, 30), DateTimes.parseTime("12:30"));
+        assertEquals(LocalTime.of(12, 30, 15, 100000000), DateTimes.parseTime("12:30:15.1"));
+        assertEquals(LocalTime.of(7, 30, 15), DateTimes.parseTime("7:30:15"));
+    }
+
+    public void testStringConversions() {
+        assertEquals(Timestamp.valueOf("2012-06-02 19:59:49.5"), Converters.convert("2012-06-02 19:59:49.5", Timestamp.class, "test"));
+        assertEquals(LocalDate.of(2012, 6, 2), Converters.convert("2012-06-02 19:59:49", LocalDate.class, "test"));
+        assertEquals(Time.valueOf("12:30:15"), Converters.convert("12:30:15.1234567", Time.class, "test"));
+
+        try {
+            Converters.convert("not a date", Timestamp.class, "SomeColumn");
+            fail("s/b PersismException");
+        } catch (PersismException e) {
+            assertTrue("message s/b include the column " + e.getMessage(), e.getMessage().contains("Column: SomeColumn"));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package net.sf.persism;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Tests the Java 9 FieldAccessors (src9 - META-INF/versions/9 of the multi-release jar). Tests run from the class
+ * folders where the JVM always loads the base version so the persism classes are loaded again here with the versioned
+ * FieldAccessors. Nothing is tested if the Java 9 classes were not compiled (Java 8 builds).
+ */
+public final class TestFieldAccessors extends TestCase {
+
+    private static final Log log = Log.getLogger(TestFieldAccessors.class);
+
+    static final class Holder {
+        private String name;
+        private long count;
+        private final int fixed = 3;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testVarHandleAccessors() throws Exception {
+        if (!VersionedClassLoader.hasVersioned(getClass(), "net.sf.persism.FieldAccessors")) {
+            log.warn("testVarHandleAccessors: no Java 9 classes on the class path - skipped");
+            return;
+        }
+
+        Class<?> accessors = new VersionedClassLoader(getClass().getClassLoader()).loadClass("net.sf.persism.FieldAccessors");
+        Method varHandle = accessors.getDeclaredMethod("varHandle", Field.class);
+        assertEquals("s/b the Java 9 version", "java.lang.invoke.VarHandle", varHandle.getReturnType().getName());
+
+        Method getterMethod = accessors.getDeclaredMethod("getter", Field.class);
+        Method setterMethod = accessors.getDeclaredMethod("setter", Field.class);
+        getterMethod.setAccessible(true);
+        setterMethod.setAccessible(true);
+
+        Holder holder = new Holder();
+        Field name = Holder.class.getDeclaredField("name");
+        Field count = Holder.class.getDeclaredField("count");
+        Field fixed = Holder.class.getDeclaredField("fixed");
+
+        BiConsumer<Object, Object> nameSetter = (BiConsumer<Object, Object>) setterMethod.invoke(null, name);
+        Function<Object, Object> nameGetter = (Function<Object, Object>) getterMethod.invoke(null, name);
+        nameSetter.accept(holder, "Fred");
+        assertEquals("name s/b Fred", "Fred", holder.name);
+        assertEquals("name s/b Fred", "Fred", nameGetter.apply(holder));
+
+        // setters widen numbers like the Java 8 version
+        BiConsumer<Object, Object> countSetter = (BiConsumer<Object, Object>) setterMethod.invoke(null, count);
+        countSetter.accept(holder, 42);
+        assertEquals("count s/b 42", 42L, holder.count);
+        assertEquals("count s/b 42", 42L, ((Function<Object, Object>) getterMethod.invoke(null, count)).apply(holder));
+
+        assertEquals("fixed s/b 3", 3, ((Function<Object, Object>) getterMethod.invoke(null, fixed)).apply(holder));
+        assertNull("final field s/b read only", setterMethod.invoke(null, fixed));
+    }
+}
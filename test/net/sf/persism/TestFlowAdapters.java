@@ -0,0 +1,87 @@
+package net.sf.persism;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the Java 9 FlowAdapters (src9 - META-INF/versions/9 of the multi-release jar) with a
+ * java.util.concurrent.Flow.Subscriber. The Flow types are used by reflection since the tests compile for Java 8.
+ * Nothing is tested if the Java 9 classes were not compiled (Java 8 builds).
+ */
+public final class TestFlowAdapters extends TestCase {
+
+    private static final Log log = Log.getLogger(TestFlowAdapters.class);
+
+    public void testToFlowPublisher() throws Exception {
+        if (!VersionedClassLoader.hasVersioned(getClass(), "net.sf.persism.FlowAdapters")) {
+            log.warn("testToFlowPublisher: no Java 9 classes on the class path - skipped");
+            return;
+        }
+
+        ClassLoader loader = new VersionedClassLoader(getClass().getClassLoader());
+        Class<?> sessionClass = loader.loadClass("net.sf.persism.Session");
+        Class<?> publisherClass = loader.loadClass("net.sf.persism.Flow$Publisher");
+        Method toFlowPublisher = loader.loadClass("net.sf.persism.FlowAdapters").getMethod("toFlowPublisher", publisherClass);
+
+        Class<?> flowPublisher = Class.forName("java.util.concurrent.Flow$Publisher");
+        Class<?> flowSubscriber = Class.forName("java.util.concurrent.Flow$Subscriber");
+        Method request = Class.forName("java.util.concurrent.Flow$Subscription").getMethod("request", long.class);
+
+        List<Object> items = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        boolean[] completed = {false};
+        Object[] subscription = {null};
+
+        // requests 2 at a time
+        Object subscriber = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{flowSubscriber}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "onSubscribe":
+                    subscription[0] = args[0];
+                    request.invoke(subscription[0], 2L);
+                    return null;
+                case "onNext":
+                    items.add(args[0]);
+                    if (items.size() % 2 == 0) {
+                        request.invoke(subscription[0], 2L);
+                    }
+                    return null;
+                case "onError":
+                    errors.add((Throwable) args[0]);
+                    return null;
+                case "onComplete":
+                    completed[0] = true;
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return "subscriber";
+            }
+        });
+
+        try (Connection con = DriverManager.getConnection("jdbc:h2:mem:flowadapters", "sa", "")) {
+            Object session = sessionClass.getConstructor(Connection.class).newInstance(con);
+            Object publisher = sessionClass.getMethod("publish", Class.class, String.class, Object[].class)
+                    .invoke(session, Integer.class, "SELECT X FROM SYSTEM_RANGE(1, 5) ORDER BY X", new Object[0]);
+
+            Object adapted = toFlowPublisher.invoke(null, publisher);
+            assertTrue("s/b a java.util.concurrent.Flow.Publisher", flowPublisher.isInstance(adapted));
+
+            flowPublisher.getMethod("subscribe", flowSubscriber).invoke(adapted, subscriber);
+        }
+
+        assertEquals("errors", 0, errors.size());
+        assertEquals("items", 5, items.size());
+        for (int j = 0; j < items.size(); j++) {
+            assertEquals("item " + j, j + 1, ((Number) items.get(j)).intValue());
+        }
+        assertTrue("s/b completed", completed[0]);
+    }
+}
@@ -2,9 +2,9 @@ package net.sf.persism;
 
 import net.sf.persism.dao.*;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.sql.*;
 import java.text.NumberFormat;
@@ -12,6 +12,11 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Comments for TestH2 go here.
@@ -153,6 +158,26 @@ public final class TestH2 extends BaseTest {
                 " WhatTimeIsIt Time NULL, " +
                 " SomethingBig BLOB NULL) ");
 
+        if (UtilsForTests.isTableInDatabase("MappedItems", con)) {
+            commands.add("DROP TABLE MappedItems");
+        }
+
+        commands.add("CREATE TABLE MappedItems ( " +
+                " Item_ID IDENTITY PRIMARY KEY, " +
+                " Description VARCHAR(30) NULL, " +
+                " Price NUMERIC(7,2) NULL, " +
+                " Active BIT NOT NULL) ");
+
+        if (UtilsForTests.isTableInDatabase("Documents", con)) {
+            commands.add("DROP TABLE Documents");
+        }
+
+        commands.add("CREATE TABLE Documents ( " +
+                " ID IDENTITY PRIMARY KEY, " +
+                " Title VARCHAR(30) NULL, " +
+                " Body CLOB NULL, " +
+                " Attachment BLOB NULL) ");
+
         executeCommands(commands, con);
 
         if (UtilsForTests.isTableInDatabase("Contacts", con)) {
@@ -291,6 +316,1134 @@ public final class TestH2 extends BaseTest {
         assertEquals("name s/b PHHHH", "PHHHH", order.getName());
     }
 
+    public void testRowPlans() throws SQLException {
+        MappedItem item = new MappedItem();
+        item.setDescription("Wrench");
+        item.setPrice(new BigDecimal("9.75"));
+        item.setActive(true);
+        session.insert(item);
+
+        MetaData metaData = session.getMetaData();
+        RowPlan plan1;
+        RowPlan plan2;
+        RowPlan plan3;
+        try (Statement st = con.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT Item_ID, Description, Price, Active FROM MappedItems")) {
+                plan1 = metaData.getRowPlan(MappedItem.class, rs, con);
+                assertSame("plan s/b cached for the same shape", plan1, metaData.getRowPlan(MappedItem.class, rs, con));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT Active, Price, Description, Item_ID FROM MappedItems")) {
+                plan2 = metaData.getRowPlan(MappedItem.class, rs, con);
+            }
+            try (ResultSet rs = st.executeQuery("SELECT Item_ID, 'x' AS Extra, Description, Price, Active FROM MappedItems")) {
+                plan3 = metaData.getRowPlan(MappedItem.class, rs, con);
+            }
+            try (ResultSet rs = st.executeQuery("SELECT Item_ID, Description FROM MappedItems")) {
+                metaData.getRowPlan(MappedItem.class, rs, con);
+                fail("s/b PersismException for missing columns");
+            } catch (PersismException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("not properly initialized"));
+            }
+        }
+
+        assertNotSame("column order s/b a different plan", plan1, plan2);
+        assertNotSame("extra column s/b a different plan", plan1, plan3);
+        assertEquals("plan2 s/b 4 columns", 4, plan2.columns.length);
+        assertEquals("plan3 s/b 4 columns", 4, plan3.columns.length);
+        assertEquals("description s/b column 2 in plan1", 2, plan1.columns[indexOf(plan1, "description")]);
+        assertEquals("description s/b column 3 in plan2", 3, plan2.columns[indexOf(plan2, "description")]);
+        assertEquals("description s/b column 3 in plan3", 3, plan3.columns[indexOf(plan3, "description")]);
+
+        // each shape reads the right values
+        String[] sqls = {"SELECT Item_ID, Description, Price, Active FROM MappedItems",
+                "SELECT Active, Price, Description, Item_ID FROM MappedItems",
+                "SELECT Item_ID, 'x' AS Extra, Description, Price, Active FROM MappedItems"};
+        for (String sql : sqls) {
+            MappedItem read = session.fetch(MappedItem.class, sql + " WHERE Item_ID = ?", item.getId());
+            assertEquals("id s/b the same " + sql, item.getId(), read.getId());
+            assertEquals("description s/b Wrench " + sql, "Wrench", read.getDescription());
+            assertEquals("price s/b 9.75 " + sql, new BigDecimal("9.75"), read.getPrice());
+            assertTrue("active s/b true " + sql, read.isActive());
+        }
+    }
+
+    private static int indexOf(RowPlan plan, String propertyName) {
+        for (int j = 0; j < plan.properties.length; j++) {
+            if (plan.properties[j].propertyName.equalsIgnoreCase(propertyName)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    public void testGeneratedMapper() {
+        MappedItem item = new MappedItem();
+        item.setDescription("Hammer");
+        item.setPrice(new BigDecimal("12.50"));
+        item.setActive(true);
+        session.insert(item);
+        assertTrue("id s/b generated", item.getId() > 0);
+
+        assertTrue("generated mapper s/b used", MetaData.getPropertyInfo(MappedItem.class).stream().allMatch(p -> p.getter == null && p.setter == null));
+        assertEquals("notes s/b excluded", 4, MetaData.getPropertyInfo(MappedItem.class).size());
+
+        List<MappedItem> items = session.query(MappedItem.class, "SELECT * FROM MappedItems");
+        assertEquals("items s/b 1", 1, items.size());
+        assertEquals("description s/b Hammer", "Hammer", items.get(0).getDescription());
+        assertEquals("price s/b 12.50", new BigDecimal("12.50"), items.get(0).getPrice());
+        assertTrue("active s/b true", items.get(0).isActive());
+
+        item.setActive(false);
+        session.update(item);
+
+        MappedItem item2 = new MappedItem();
+        item2.setId(item.getId());
+        assertTrue("item s/b found", session.fetch(item2));
+        assertFalse("active s/b false", item2.isActive());
+
+        session.delete(item2);
+        assertFalse("item s/b deleted", session.fetch(item2));
+    }
+
+    public void testGeneratedMapperWithOtherFeatures() {
+        // field access uses the fields behind the generated mapper properties
+        assertTrue("field readers s/b found", MetaData.getPropertyInfo(MappedItem.class).stream().allMatch(p -> p.fieldReader != null));
+        session.setFieldAccess(true);
+        try {
+            MappedItem item = new MappedItem();
+            item.setDescription("Chisel");
+            item.setPrice(new BigDecimal("8.25"));
+            session.insert(item);
+            MappedItem read = session.fetch(MappedItem.class, "SELECT * FROM MappedItems WHERE Item_ID = ?", item.getId());
+            assertEquals("description s/b Chisel", "Chisel", read.getDescription());
+        } finally {
+            session.setFieldAccess(false);
+        }
+
+        // the generated mapper doesn't know Lazy properties - reflection is used instead
+        assertTrue("generated mapper s/b not used", MetaData.getPropertyInfo(MappedDocument.class).stream().allMatch(p -> p.getter != null && p.setter != null));
+        MappedDocument document = new MappedDocument();
+        document.setTitle("Mapped");
+        document.setBody(LazyValue.of("Mapped body"));
+        session.insert(document);
+
+        MappedDocument fetched = new MappedDocument();
+        fetched.setId(document.getId());
+        assertTrue("s/b found", session.fetch(fetched));
+        assertFalse("body s/b not loaded", fetched.getBody().isLoaded());
+        assertEquals("body s/b Mapped body", "Mapped body", fetched.getBody().get());
+    }
+
+    public void testConstructorPropertiesWithSetters() {
+        assertNull("s/b mutable - default constructor and setters", MetaData.getConstructorInfo(BeanItem.class));
+
+        BeanItem item = new BeanItem(0, "Hammer", new BigDecimal("12.50"), true);
+        session.insert(item);
+        assertTrue("id s/b generated", item.getId() > 0);
+
+        BeanItem fetched = new BeanItem();
+        fetched.setId(item.getId());
+        assertTrue("s/b found", session.fetch(fetched));
+        assertEquals("description s/b Hammer", "Hammer", fetched.getDescription());
+        assertEquals("price s/b 12.50", new BigDecimal("12.50"), fetched.getPrice());
+    }
+
+    public void testImmutableObjects() {
+        session.insert(new ImmutableItem(0, "Wrench", new BigDecimal("8.75"), true));
+        session.insert(new ImmutableItem(0, "Pliers", null, false));
+
+        List<ImmutableItem> items = session.query(ImmutableItem.class, "SELECT * FROM MappedItems ORDER BY Description DESC");
+        assertEquals("items s/b 2", 2, items.size());
+        assertEquals("description s/b Wrench", "Wrench", items.get(0).getDescription());
+        assertEquals("price s/b 8.75", new BigDecimal("8.75"), items.get(0).getPrice());
+        assertTrue("active s/b true", items.get(0).isActive());
+        assertTrue("id s/b read", items.get(0).getId() > 0);
+        assertNull("price s/b null", items.get(1).getPrice());
+
+        ImmutableItem item = session.fetch(ImmutableItem.class, "SELECT * FROM MappedItems WHERE Item_ID = ?", items.get(1).getId());
+        assertNotNull("item s/b found", item);
+        assertEquals("description s/b Pliers", "Pliers", item.getDescription());
+
+        ImmutableItem changed = new ImmutableItem(item.getId(), "Pliers", new BigDecimal("5.00"), true);
+        assertEquals("update s/b 1", 1, session.update(changed));
+        assertEquals("price s/b updated", new BigDecimal("5.00"), session.fetch(ImmutableItem.class, "SELECT * FROM MappedItems WHERE Item_ID = ?", item.getId()).getPrice());
+
+        try {
+            session.fetch(changed);
+            fail("s/b PersismException - immutable");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("immutable"));
+        }
+
+        session.delete(changed);
+        assertNull("item s/b deleted", session.fetch(ImmutableItem.class, "SELECT * FROM MappedItems WHERE Item_ID = ?", item.getId()));
+    }
+
+    public void testFieldAccess() {
+        FieldItem item = new FieldItem();
+        item.setDescription("Hammer");
+        item.setPrice(new BigDecimal("12.50"));
+        item.setActive(true);
+
+        FieldItem.accessorCalls = 0;
+        session.insert(item);
+        assertEquals("accessors s/b skipped inserting", 0, FieldItem.accessorCalls);
+        long id = item.getId();
+        assertTrue("id s/b assigned", id > 0);
+
+        FieldItem.accessorCalls = 0;
+        FieldItem read = session.fetch(FieldItem.class, "SELECT * FROM MappedItems WHERE Item_ID = ?", id);
+        assertEquals("accessors s/b skipped reading", 0, FieldItem.accessorCalls);
+        assertEquals("description s/b Hammer", "Hammer", read.getDescription());
+        assertEquals("price s/b 12.50", new BigDecimal("12.50"), read.getPrice());
+
+        read.setPrice(new BigDecimal("10.00"));
+        FieldItem.accessorCalls = 0;
+        assertEquals("update s/b 1", 1, session.update(read));
+        session.fetch(read);
+        assertEquals("accessors s/b skipped writing", 0, FieldItem.accessorCalls);
+        assertEquals("price s/b updated", new BigDecimal("10.00"), read.getPrice());
+
+        FieldItem.accessorCalls = 0;
+        session.delete(read);
+        assertEquals("accessors s/b skipped deleting", 0, FieldItem.accessorCalls);
+
+        // session wide field access for a class without the annotation
+        session.setFieldAccess(true);
+        try {
+            session.insert(new ImmutableItem(0, "Level", new BigDecimal("7.25"), true));
+            List<ImmutableItem> items = session.query(ImmutableItem.class, "SELECT * FROM MappedItems WHERE Description = ?", "Level");
+            assertEquals("items s/b 1", 1, items.size());
+            assertEquals("price s/b 7.25", new BigDecimal("7.25"), items.get(0).getPrice());
+            session.delete(items.get(0));
+        } finally {
+            session.setFieldAccess(false);
+        }
+    }
+
+    public void testStream() {
+        for (int j = 1; j <= 25; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            item.setPrice(new BigDecimal(j));
+            item.setActive(j % 2 == 0);
+            session.insert(item);
+        }
+
+        session.setFetchSize(10);
+        try {
+            try (Stream<MappedItem> items = session.stream(MappedItem.class, "SELECT * FROM MappedItems WHERE Active = ? ORDER BY Item_ID", true)) {
+                assertEquals("total s/b 156", new BigDecimal("156.00"), items.map(MappedItem::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add));
+            }
+
+            try (Stream<String> descriptions = session.stream(String.class, "SELECT Description FROM MappedItems ORDER BY Item_ID")) {
+                assertEquals("first 3 s/b", Arrays.asList("Item 1", "Item 2", "Item 3"), descriptions.limit(3).collect(Collectors.toList()));
+            }
+        } finally {
+            session.setFetchSize(0);
+        }
+
+        // stop part way - close releases the result set
+        Cursor<MappedItem> cursor = session.cursor(MappedItem.class, "SELECT * FROM MappedItems ORDER BY Item_ID");
+        assertTrue("s/b rows", cursor.hasNext());
+        assertEquals("description s/b Item 1", "Item 1", cursor.next().getDescription());
+        cursor.close();
+        assertFalse("s/b no rows after close", cursor.hasNext());
+
+        // read to the end
+        int count = 0;
+        try (Cursor<Integer> ids = session.cursor(Integer.class, "SELECT Item_ID FROM MappedItems")) {
+            while (ids.hasNext()) {
+                assertNotNull("id s/b read", ids.next());
+                count++;
+            }
+            try {
+                ids.next();
+                fail("s/b NoSuchElementException");
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+        }
+        assertEquals("count s/b 25", 25, count);
+    }
+
+    public void testRowHandler() {
+        for (int j = 1; j <= 5; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            item.setPrice(j == 3 ? null : new BigDecimal(j));
+            item.setActive(true);
+            session.insert(item);
+        }
+
+        List<BigDecimal> prices = new ArrayList<>();
+        Set<MappedItem> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        session.query(MappedItem.class, new RowHandler<MappedItem>(true) {
+            @Override
+            public void handle(MappedItem item) {
+                instances.add(item);
+                prices.add(item.getPrice());
+            }
+        }, "SELECT * FROM MappedItems ORDER BY Item_ID");
+        assertEquals("instance s/b reused", 1, instances.size());
+        assertEquals("null price s/b reset", Arrays.asList(new BigDecimal("1.00"), new BigDecimal("2.00"), null, new BigDecimal("4.00"), new BigDecimal("5.00")), prices);
+
+        List<String> descriptions = new ArrayList<>();
+        session.query(String.class, (String description) -> descriptions.add(description), "SELECT Description FROM MappedItems WHERE Price > ? ORDER BY Item_ID", 3);
+        assertEquals("descriptions s/b", Arrays.asList("Item 4", "Item 5"), descriptions);
+
+        List<FieldItem> items = new ArrayList<>();
+        session.query(FieldItem.class, (FieldItem item) -> items.add(item), "SELECT * FROM MappedItems");
+        assertEquals("items s/b 5", 5, items.size());
+        assertNull("read state s/b not saved", items.get(0).getOriginalValue());
+    }
+
+    public void testStatementCache() {
+        session.setStatementCacheSize(2);
+        try {
+            for (int j = 1; j <= 3; j++) {
+                MappedItem item = new MappedItem();
+                item.setDescription("Item " + j);
+                item.setActive(true);
+                session.insert(item);
+            }
+            assertEquals("insert s/b prepared once", 1, session.getStatementCacheMisses());
+            assertEquals("insert s/b reused twice", 2, session.getStatementCacheHits());
+
+            String sql = "SELECT * FROM MappedItems WHERE Description = ?";
+            assertEquals("Item 2 s/b found", "Item 2", session.fetch(MappedItem.class, sql, "Item 2").getDescription());
+            assertEquals("Item 3 s/b found with the cached statement", "Item 3", session.fetch(MappedItem.class, sql, "Item 3").getDescription());
+            assertEquals("hits s/b 3", 3, session.getStatementCacheHits());
+
+            // the open cursor keeps its statement - the same SQL gets another one
+            try (Cursor<MappedItem> cursor = session.cursor(MappedItem.class, "SELECT * FROM MappedItems ORDER BY Item_ID")) {
+                int count = 0;
+                while (cursor.hasNext()) {
+                    MappedItem item = cursor.next();
+                    assertEquals("s/b same item", item.getId(), session.query(MappedItem.class, "SELECT * FROM MappedItems ORDER BY Item_ID").get(count).getId());
+                    count++;
+                }
+                assertEquals("count s/b 3", 3, count);
+            }
+
+            // evicts the insert statement (least recently used)
+            session.query(MappedItem.class, "SELECT * FROM MappedItems WHERE Item_ID > ?", 0);
+            long misses = session.getStatementCacheMisses();
+            MappedItem item = new MappedItem();
+            item.setDescription("Item 4");
+            session.insert(item);
+            assertEquals("insert s/b prepared again", misses + 1, session.getStatementCacheMisses());
+        } finally {
+            session.setStatementCacheSize(0);
+        }
+        assertEquals("counters s/b reset", 0, session.getStatementCacheHits());
+        assertEquals("items s/b 4", 4, session.query(MappedItem.class, "SELECT * FROM MappedItems").size());
+    }
+
+    public void testQueryCache() throws InterruptedException {
+        MappedItem item = new MappedItem();
+        item.setDescription("Drill");
+        item.setPrice(new BigDecimal("99.00"));
+        session.insert(item);
+
+        QueryCache cache = new QueryCache(10, 0, TimeUnit.SECONDS);
+        session.setQueryCache(cache);
+        Session other = new Session(con);
+        other.setQueryCache(cache);
+        try {
+            String sql = "SELECT * FROM MappedItems WHERE Price > ?";
+            List<MappedItem> items = session.query(MappedItem.class, sql, 10);
+            assertEquals("items s/b 1", 1, items.size());
+            assertEquals("misses s/b 1", 1, cache.getMisses());
+
+            // changing the result does not change the cache
+            items.get(0).setDescription("Changed");
+            items = other.query(MappedItem.class, sql, 10);
+            assertEquals("hits s/b 1", 1, cache.getHits());
+            assertEquals("description s/b Drill", "Drill", items.get(0).getDescription());
+            assertNotSame("s/b copies", items.get(0), other.query(MappedItem.class, sql, 10).get(0));
+
+            // insert through the other session invalidates
+            MappedItem saw = new MappedItem();
+            saw.setDescription("Saw");
+            saw.setPrice(new BigDecimal("15.00"));
+            other.insert(saw);
+            assertEquals("cache s/b empty", 0, cache.size());
+            assertEquals("items s/b 2", 2, session.query(MappedItem.class, sql, 10).size());
+
+            // different parameters - different entry
+            assertEquals("items s/b 1", 1, session.query(MappedItem.class, sql, 20).size());
+            assertEquals("entries s/b 2", 2, cache.size());
+
+            session.delete(saw);
+            assertEquals("cache s/b empty after delete", 0, cache.size());
+
+            // leading white space, other separators and WITH queries are cached
+            String[] queries = {"\n  select\t* FROM MappedItems WHERE Price > ?",
+                    "WITH Priced AS (SELECT * FROM MappedItems WHERE Price > ?) SELECT * FROM Priced"};
+            for (String query : queries) {
+                long hits = cache.getHits();
+                session.query(MappedItem.class, query, 10);
+                assertEquals("s/b cached: " + query, 1, session.query(MappedItem.class, query, 10).size());
+                assertEquals("s/b a hit: " + query, hits + 1, cache.getHits());
+            }
+            session.delete(items.get(0));
+            assertEquals("cache s/b empty after delete", 0, cache.size());
+
+            QueryCache expiring = new QueryCache(10, 1, TimeUnit.MILLISECONDS);
+            session.setQueryCache(expiring);
+            session.query(MappedItem.class, sql, 10);
+            Thread.sleep(5);
+            session.query(MappedItem.class, sql, 10);
+            assertEquals("expired s/b a miss", 2, expiring.getMisses());
+        } finally {
+            session.setQueryCache(null);
+        }
+    }
+
+    public void testIdentityMap() throws SQLException {
+        session.setIdentityMapEnabled(true);
+        try {
+            MappedItem item = new MappedItem();
+            item.setDescription("Clamp");
+            item.setPrice(new BigDecimal("9.00"));
+            session.insert(item);
+
+            String sql = "SELECT * FROM MappedItems WHERE Item_ID = ?";
+            assertSame("inserted instance s/b returned", item, session.fetch(MappedItem.class, sql, item.getId()));
+            assertSame("query s/b de-duplicated", item, session.query(MappedItem.class, "SELECT * FROM MappedItems").get(0));
+
+            // changed outside of the session - fetch by primary key is answered from the map
+            executeCommand("UPDATE MappedItems SET Description = 'Vise' WHERE Item_ID = " + item.getId(), con);
+            MappedItem other = new MappedItem();
+            other.setId(item.getId());
+            assertTrue("s/b found", session.fetch(other));
+            assertEquals("description s/b from the map", "Clamp", other.getDescription());
+
+            session.clearIdentityMap();
+            MappedItem read = session.fetch(MappedItem.class, sql, item.getId());
+            assertNotSame("s/b read again after clear", item, read);
+            assertEquals("description s/b Vise", "Vise", read.getDescription());
+
+            session.delete(read);
+            MappedItem deleted = new MappedItem();
+            deleted.setId(item.getId());
+            assertFalse("s/b removed from the map", session.fetch(deleted));
+        } finally {
+            session.setIdentityMapEnabled(false);
+        }
+    }
+
+    public void testFetchAll() {
+        List<Object> keys = new ArrayList<>();
+        for (int j = 1; j <= 7; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            session.insert(item);
+            keys.add(0, (int) item.getId()); // reverse order, Integer keys for a long property
+        }
+        keys.add(3, -1);
+
+        session.setStatementCacheSize(5);
+        try {
+            List<MappedItem> items = session.fetchAll(MappedItem.class, keys, 3);
+            assertEquals("executions s/b 3", 3, session.getStatementCacheHits() + session.getStatementCacheMisses());
+            assertEquals("items s/b in key order", 8, items.size());
+            assertEquals("first s/b Item 7", "Item 7", items.get(0).getDescription());
+            assertNull("missing key s/b null", items.get(3));
+            assertEquals("last s/b Item 1", "Item 1", items.get(7).getDescription());
+        } finally {
+            session.setStatementCacheSize(0);
+        }
+
+        assertTrue("no keys s/b empty", session.fetchAll(MappedItem.class, Collections.emptyList()).isEmpty());
+        try {
+            session.fetchAll(MappedItem.class, Collections.singletonList(new Object[]{1, 2}));
+            fail("s/b PersismException - 2 values for 1 primary key");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("should have 1 values"));
+        }
+    }
+
+    public void testPage() {
+        for (int j = 1; j <= 10; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            session.insert(item);
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        int pages = 0;
+        Page<MappedItem> page = session.page(MappedItem.class, PageRequest.first(4));
+        while (true) {
+            pages++;
+            page.getItems().forEach(item -> descriptions.add(item.getDescription()));
+            if (!page.hasNext()) {
+                break;
+            }
+            // token can go to a client and back
+            page = session.page(MappedItem.class, PageRequest.after(page.getNextToken(), 4));
+        }
+        assertEquals("pages s/b 3", 3, pages);
+        assertEquals("items s/b 10", 10, descriptions.size());
+        assertEquals("first s/b Item 1", "Item 1", descriptions.get(0));
+        assertEquals("last s/b Item 10", "Item 10", descriptions.get(9));
+
+        // exactly one page
+        page = session.page(MappedItem.class, PageRequest.first(10));
+        assertEquals("items s/b 10", 10, page.getItems().size());
+        assertFalse("s/b no next page", page.hasNext());
+        assertNull("next s/b null", page.next());
+
+        Object[] keys = {12L, "a.b", new BigDecimal("1.50"), UUID.randomUUID(), new byte[]{1, 2}, LocalDate.of(2026, 10, 18), Timestamp.valueOf("2026-10-18 10:11:12.123456")};
+        Object[] decoded = PageRequest.decode(PageRequest.encode(keys));
+        assertTrue("token s/b decoded", Arrays.deepEquals(keys, decoded));
+
+        try {
+            session.page(MappedItem.class, PageRequest.after("garbage!", 4));
+            fail("s/b PersismException - invalid token");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Invalid page token"));
+        }
+    }
+
+    public void testPrimitiveQueries() {
+        // more than the initial capacity so the arrays grow
+        for (int j = 1; j <= 50; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            if (j % 10 != 0) {
+                item.setPrice(new BigDecimal(j + ".25"));
+            }
+            session.insert(item);
+        }
+
+        int[] ids = session.queryInts("SELECT Item_ID FROM MappedItems ORDER BY Item_ID");
+        assertEquals("ids s/b 50", 50, ids.length);
+        long[] longIds = session.queryLongs("SELECT Item_ID FROM MappedItems ORDER BY Item_ID");
+        assertEquals("ids s/b 50", 50, longIds.length);
+        for (int j = 1; j < ids.length; j++) {
+            assertTrue("ids s/b ascending", ids[j] > ids[j - 1]);
+            assertEquals("long id s/b same", ids[j], longIds[j]);
+        }
+
+        double[] prices = session.queryDoubles("SELECT Price FROM MappedItems WHERE Item_ID = ?", ids[9]);
+        assertEquals("null price s/b 0", 0.0, prices[0]);
+
+        DoubleVector vector = session.queryDoubleVector("SELECT Price FROM MappedItems ORDER BY Item_ID");
+        assertEquals("size s/b 50", 50, vector.size());
+        assertTrue("s/b nulls", vector.hasNulls());
+        assertEquals("first price s/b 1.25", 1.25, vector.get(0));
+        assertFalse("first price s/b not null", vector.isNull(0));
+        assertTrue("10th price s/b null", vector.isNull(9));
+        assertNull("10th price s/b null", vector.getObject(9));
+        assertTrue("50th price s/b null", vector.isNull(49));
+        assertEquals("49th price s/b 49.25", 49.25, vector.getObject(48));
+
+        IntVector none = session.queryIntVector("SELECT Item_ID FROM MappedItems WHERE Item_ID < 0");
+        assertEquals("size s/b 0", 0, none.size());
+        assertFalse("s/b no nulls", none.hasNulls());
+
+        // rows after the null bitmap was allocated
+        IntVector early = session.queryIntVector("SELECT CASE WHEN X = 1 THEN NULL ELSE X END FROM SYSTEM_RANGE(1, 200) ORDER BY X");
+        assertEquals("size s/b 200", 200, early.size());
+        assertTrue("first s/b null", early.isNull(0));
+        for (int j = 1; j < early.size(); j++) {
+            assertFalse("s/b not null " + j, early.isNull(j));
+            assertEquals("s/b " + (j + 1), j + 1, early.get(j));
+        }
+    }
+
+    public void testQueryColumnar() {
+        for (int j = 1; j <= 600; j++) {
+            MappedItem item = new MappedItem();
+            // low cardinality description and a null price every 10th row
+            item.setDescription("Category " + (j % 5));
+            if (j % 10 != 0) {
+                item.setPrice(new BigDecimal("2.50"));
+            }
+            item.setActive(j % 2 == 0);
+            session.insert(item);
+        }
+
+        ColumnarResult result = session.queryColumnar("SELECT Item_ID, Description, Price, Active FROM MappedItems ORDER BY Item_ID");
+        assertEquals("rows s/b 600", 600, result.getRowCount());
+        assertEquals("columns s/b 4", 4, result.getColumnCount());
+        assertEquals("column index s/b 2", 2, result.getColumnIndex("price"));
+
+        StringVector descriptions = (StringVector) result.getColumn("Description");
+        assertTrue("s/b dictionary encoded", descriptions.isDictionaryEncoded());
+        assertEquals("dictionary s/b 5", 5, descriptions.getDictionary().length);
+        assertEquals("description s/b Category 1", "Category 1", descriptions.get(0));
+        assertEquals("same values s/b same code", descriptions.getCode(0), descriptions.getCode(5));
+
+        double total = 0;
+        int nulls = 0;
+        long lastId = 0;
+        ColumnarResult.Row row = result.row();
+        while (row.next()) {
+            assertTrue("ids s/b ascending", row.getLong(0) > lastId);
+            lastId = row.getLong(0);
+            if (row.isNull(2)) {
+                nulls++;
+            }
+            total += row.getDouble(2);
+        }
+        assertEquals("nulls s/b 60", 60, nulls);
+        assertEquals("total s/b 1350", 1350.0, total);
+        assertEquals("active s/b true", Boolean.TRUE, result.getObject(1, 3));
+
+        // high cardinality text switches to holding the strings
+        result = session.queryColumnar("SELECT 'Item ' || Item_ID AS Name FROM MappedItems");
+        StringVector names = (StringVector) result.getColumn(0);
+        assertFalse("s/b not dictionary encoded", names.isDictionaryEncoded());
+        assertEquals("rows s/b 600", 600, names.size());
+        assertTrue("name s/b Item n", names.get(599).startsWith("Item "));
+
+        // only the first row is null - rows after the null bitmap was allocated
+        result = session.queryColumnar("SELECT X, CASE WHEN X = 1 THEN NULL ELSE X END AS Value, CASE WHEN X = 1 THEN NULL ELSE 'V' || X END AS Name FROM SYSTEM_RANGE(1, 200) ORDER BY X");
+        assertEquals("rows s/b 200", 200, result.getRowCount());
+        assertTrue("first value s/b null", result.isNull(0, 1));
+        assertTrue("first name s/b null", result.isNull(0, 2));
+        row = result.row();
+        row.next();
+        while (row.next()) {
+            assertFalse("value s/b not null", row.isNull(1));
+            assertFalse("name s/b not null", row.isNull(2));
+        }
+        assertEquals("last value s/b 200", 200, result.getInt(199, 1));
+        assertFalse("last name s/b not null", result.isNull(199, 2));
+    }
+
+    public void testParallelQuery() throws SQLException {
+        org.h2.jdbcx.JdbcDataSource dataSource = new org.h2.jdbcx.JdbcDataSource();
+        dataSource.setURL(con.getMetaData().getURL());
+        dataSource.setUser("sa");
+
+        ParallelQuery parallelQuery = new ParallelQuery(dataSource, 4);
+        assertEquals("empty table s/b 0", 0, parallelQuery.query(MappedItem.class).size());
+
+        for (int j = 1; j <= 103; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            session.insert(item);
+        }
+
+        List<MappedItem> items = parallelQuery.query(MappedItem.class);
+        assertEquals("items s/b 103", 103, items.size());
+        assertEquals("ids s/b distinct", 103, items.stream().map(MappedItem::getId).distinct().count());
+        assertEquals("stream s/b 103", 103, parallelQuery.stream(MappedItem.class).count());
+
+        // more partitions than rows
+        assertEquals("items s/b 103", 103, new ParallelQuery(dataSource, 500).query(MappedItem.class).size());
+
+        List<long[]> ranges = ParallelQuery.split(1, 10, 4);
+        assertEquals("ranges s/b 4", 4, ranges.size());
+        assertEquals("first range s/b 1-3", "[1, 3]", Arrays.toString(ranges.get(0)));
+        assertEquals("last range s/b 10-10", "[10, 10]", Arrays.toString(ranges.get(3)));
+        assertEquals("ranges s/b 1", 1, ParallelQuery.split(5, 5, 4).size());
+        ranges = ParallelQuery.split(Long.MIN_VALUE, Long.MAX_VALUE, 2);
+        assertEquals("ranges s/b 2", 2, ranges.size());
+        assertEquals("last range s/b to max", Long.MAX_VALUE, ranges.get(1)[1]);
+
+        try {
+            parallelQuery.query(Customer.class);
+            fail("s/b PersismException - Customer_ID is not numeric");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("is not an integer"));
+        }
+
+        // keys with a scale cannot be split into long ranges
+        executeCommand("CREATE TABLE DECIMAL_KEYS (ID NUMERIC(10,2) PRIMARY KEY, Description VARCHAR(30) NULL)", con);
+        try {
+            DecimalKeyItem item = new DecimalKeyItem();
+            item.setId(new BigDecimal("1.50"));
+            item.setDescription("half");
+            session.insert(item);
+            parallelQuery.query(DecimalKeyItem.class);
+            fail("s/b PersismException - ID has a scale");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("is not an integer"));
+        } finally {
+            executeCommand("DROP TABLE DECIMAL_KEYS", con);
+        }
+    }
+
+    public void testAsyncSession() throws Exception {
+        org.h2.jdbcx.JdbcDataSource dataSource = new org.h2.jdbcx.JdbcDataSource();
+        dataSource.setURL(con.getMetaData().getURL());
+        dataSource.setUser("sa");
+
+        try (AsyncSession async = new AsyncSession(dataSource)) {
+            List<CompletableFuture<Integer>> inserts = new ArrayList<>();
+            for (int j = 1; j <= 10; j++) {
+                MappedItem item = new MappedItem();
+                item.setDescription("Item " + j);
+                inserts.add(async.insert(item));
+            }
+            CompletableFuture.allOf(inserts.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+            CompletableFuture<List<MappedItem>> items = async.query(MappedItem.class, "SELECT * FROM MappedItems ORDER BY Item_ID");
+            CompletableFuture<Integer> count = async.fetch(Integer.class, "SELECT COUNT(*) FROM MappedItems");
+            assertEquals("items s/b 10", 10, items.get().size());
+            assertEquals("count s/b 10", Integer.valueOf(10), count.get());
+
+            MappedItem item = items.get().get(0);
+            item.setDescription("Changed");
+            assertEquals("update s/b 1", Integer.valueOf(1), async.update(item).get());
+
+            MappedItem fetched = new MappedItem();
+            fetched.setId(item.getId());
+            assertTrue("s/b found", async.fetch(fetched).get());
+            assertEquals("description s/b Changed", "Changed", fetched.getDescription());
+
+            assertEquals("delete s/b 1", Integer.valueOf(1), async.delete(item).get());
+            assertEquals("count s/b 9", Integer.valueOf(9), async.submit(s -> s.fetch(Integer.class, "SELECT COUNT(*) FROM MappedItems")).get());
+
+            try {
+                async.query(MappedItem.class, "SELECT * FROM NoSuchTable").get();
+                fail("s/b ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue("cause s/b PersismException", e.getCause() instanceof PersismException);
+            }
+        }
+    }
+
+    public void testPublish() {
+        for (int j = 1; j <= 300; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            session.insert(item);
+        }
+
+        Flow.Publisher<MappedItem> publisher = session.publish(MappedItem.class, "SELECT * FROM MappedItems ORDER BY Item_ID");
+
+        // one at a time from onNext
+        List<MappedItem> items = new ArrayList<>();
+        boolean[] completed = {false};
+        publisher.subscribe(new Flow.Subscriber<MappedItem>() {
+            Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(MappedItem item) {
+                items.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        assertEquals("items s/b 300", 300, items.size());
+        assertEquals("last s/b Item 300", "Item 300", items.get(299).getDescription());
+        assertTrue("s/b completed", completed[0]);
+
+        // cancel after 5 of 10 requested
+        items.clear();
+        completed[0] = false;
+        publisher.subscribe(new Flow.Subscriber<MappedItem>() {
+            Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(10);
+            }
+
+            @Override
+            public void onNext(MappedItem item) {
+                items.add(item);
+                if (items.size() == 5) {
+                    subscription.cancel();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        assertEquals("items s/b 5", 5, items.size());
+        assertFalse("s/b not completed", completed[0]);
+
+        // invalid request
+        Throwable[] error = {null};
+        session.publish(MappedItem.class, "SELECT * FROM MappedItems").subscribe(new Flow.Subscriber<MappedItem>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            public void onNext(MappedItem item) {
+                fail("s/b no items");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error[0] = throwable;
+            }
+
+            @Override
+            public void onComplete() {
+                fail("s/b no complete");
+            }
+        });
+        assertTrue("s/b IllegalArgumentException", error[0] instanceof IllegalArgumentException);
+
+        // session still usable - the statements were closed
+        assertEquals("count s/b 300", Integer.valueOf(300), session.fetch(Integer.class, "SELECT COUNT(*) FROM MappedItems"));
+    }
+
+    public void testNamedParameters() {
+        for (int j = 1; j <= 5; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            item.setPrice(new BigDecimal(j));
+            session.insert(item);
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("min", 2);
+        params.put("max", 4);
+        List<MappedItem> items = session.query(MappedItem.class, "SELECT * FROM MappedItems WHERE Price >= :min AND Price <= :max ORDER BY Price", params);
+        assertEquals("items s/b 3", 3, items.size());
+        assertEquals("count s/b 3", Integer.valueOf(3), session.fetch(Integer.class, "SELECT COUNT(*) FROM MappedItems WHERE Price BETWEEN :min AND :max", params));
+
+        // properties of a data object
+        MappedItem example = new MappedItem();
+        example.setDescription("Item 5");
+        items = session.query(MappedItem.class, "SELECT * FROM MappedItems WHERE Description = :description", example);
+        assertEquals("items s/b 1", 1, items.size());
+        assertEquals("price s/b 5", 0, new BigDecimal(5).compareTo(items.get(0).getPrice()));
+
+        // cached by the values and not the object
+        session.setQueryCache(new QueryCache(10, 1, TimeUnit.MINUTES));
+        try {
+            assertEquals("items s/b 1", 1, session.query(MappedItem.class, "SELECT * FROM MappedItems WHERE Description = :description", example).size());
+            example.setDescription("Item 1");
+            items = session.query(MappedItem.class, "SELECT * FROM MappedItems WHERE Description = :description", example);
+            assertEquals("description s/b Item 1", "Item 1", items.get(0).getDescription());
+        } finally {
+            session.setQueryCache(null);
+        }
+
+        // parsed once
+        MetaData metaData = session.getMetaData();
+        String sql = "SELECT * FROM MappedItems WHERE Price >= :min AND Price <= :max ORDER BY Price";
+        assertSame("s/b cached", metaData.getNamedSql(sql), metaData.getNamedSql(sql));
+    }
+
+    public void testLazy() {
+        Document document = new Document();
+        document.setTitle("Report");
+        document.setBody(LazyValue.of("Quarterly numbers"));
+        document.setAttachment(LazyValue.of(new byte[]{1, 2, 3}));
+        session.insert(document);
+        assertTrue("id s/b generated", document.getId() > 0);
+
+        // the select for fetch and list queries skip the lazy columns
+        String select = session.getMetaData().getSelectStatement(document, con);
+        assertFalse("select s/b without Body " + select, select.contains("Body"));
+
+        Document fetched = new Document();
+        fetched.setId(document.getId());
+        assertTrue("s/b found", session.fetch(fetched));
+        assertEquals("title s/b Report", "Report", fetched.getTitle());
+        assertFalse("body s/b not loaded", fetched.getBody().isLoaded());
+        assertEquals("body s/b Quarterly numbers", "Quarterly numbers", fetched.getBody().get());
+        assertTrue("body s/b loaded", fetched.getBody().isLoaded());
+        assertTrue("attachment s/b loaded", Arrays.equals(new byte[]{1, 2, 3}, fetched.getAttachment().get()));
+
+        // SELECT * also gets lazy values
+        List<Document> documents = session.query(Document.class, "SELECT * FROM Documents");
+        assertEquals("documents s/b 1", 1, documents.size());
+        assertFalse("body s/b not loaded", documents.get(0).getBody().isLoaded());
+
+        // update only writes lazy columns which were set
+        Document document2 = documents.get(0);
+        document2.setTitle("Report 2");
+        session.update(document2);
+        assertEquals("body s/b unchanged", "Quarterly numbers", session.fetch(String.class, "SELECT Body FROM Documents"));
+
+        document2.getBody().set("Annual numbers");
+        session.update(document2);
+        fetched = new Document();
+        fetched.setId(document.getId());
+        session.fetch(fetched);
+        assertEquals("title s/b Report 2", "Report 2", fetched.getTitle());
+        assertEquals("body s/b Annual numbers", "Annual numbers", fetched.getBody().get());
+    }
+
+    public void testQueryCacheLazy() throws SQLException {
+        Document document = new Document();
+        document.setTitle("Cached");
+        document.setBody(LazyValue.of("Cached body"));
+        session.insert(document);
+
+        QueryCache cache = new QueryCache(10, 0, TimeUnit.SECONDS);
+        String sql = "SELECT * FROM Documents WHERE ID = ?";
+
+        // read and cached by a session which is then closed
+        Session reader = new Session(DriverManager.getConnection(con.getMetaData().getURL(), "sa", ""));
+        reader.setQueryCache(cache);
+        Document first = reader.query(Document.class, sql, document.getId()).get(0);
+        assertFalse("body s/b not loaded", first.getBody().isLoaded());
+        reader.close();
+
+        session.setQueryCache(cache);
+        try {
+            Document hit1 = session.query(Document.class, sql, document.getId()).get(0);
+            Document hit2 = session.query(Document.class, sql, document.getId()).get(0);
+            assertEquals("hits s/b 2", 2, cache.getHits());
+            assertNotSame("s/b own LazyValue", first.getBody(), hit1.getBody());
+            assertNotSame("s/b own LazyValue", hit1.getBody(), hit2.getBody());
+
+            // loads with this session - the reader is closed
+            assertFalse("body s/b not loaded", hit1.getBody().isLoaded());
+            assertEquals("body s/b Cached body", "Cached body", hit1.getBody().get());
+            assertFalse("other copy s/b not loaded", hit2.getBody().isLoaded());
+
+            hit1.getBody().set("Changed body");
+            assertEquals("body s/b Cached body", "Cached body", session.query(Document.class, sql, document.getId()).get(0).getBody().get());
+        } finally {
+            session.setQueryCache(null);
+        }
+    }
+
+    public void testStreamedColumns() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < 2000; j++) {
+            sb.append("Gr\u00fc\u00dfe \u2013 \u65e5\u672c\u8a9e ").append(j).append('\n');
+        }
+        String text = sb.toString();
+        byte[] bytes = new byte[100_000];
+        for (int j = 0; j < bytes.length; j++) {
+            bytes[j] = (byte) j;
+        }
+
+        long tempFiles = countTempFiles();
+
+        StreamedDocument document = new StreamedDocument();
+        document.setTitle("Streamed");
+        document.setBody(new StringReader(text));
+        document.setAttachment(new ByteArrayInputStream(bytes));
+        session.insert(document);
+        assertTrue("id s/b generated", document.getId() > 0);
+
+        StreamedDocument fetched = new StreamedDocument();
+        fetched.setId(document.getId());
+        assertTrue("s/b found", session.fetch(fetched));
+        assertEquals("large values s/b spilled to 2 temp files", tempFiles + 2, countTempFiles());
+
+        assertEquals("body s/b the same text", text, readAll(fetched.getBody()));
+        assertTrue("attachment s/b the same bytes", Arrays.equals(bytes, readAll(fetched.getAttachment())));
+        assertEquals("temp files s/b deleted on close", tempFiles, countTempFiles());
+
+        // values within one chunk are kept in memory
+        StreamedDocument small = new StreamedDocument();
+        small.setTitle("Small");
+        small.setBody(new StringReader("short"));
+        small.setAttachment(new ByteArrayInputStream(new byte[]{1, 2}));
+        session.insert(small);
+        fetched = new StreamedDocument();
+        fetched.setId(small.getId());
+        assertTrue("s/b found", session.fetch(fetched));
+        assertEquals("no temp files s/b created", tempFiles, countTempFiles());
+        assertEquals("body s/b short", "short", readAll(fetched.getBody()));
+        assertTrue("attachment s/b 1, 2", Arrays.equals(new byte[]{1, 2}, readAll(fetched.getAttachment())));
+
+        // streams can only be read once - not cached
+        QueryCache cache = new QueryCache(10, 0, TimeUnit.SECONDS);
+        session.setQueryCache(cache);
+        try {
+            String streamedSql = "SELECT * FROM Documents WHERE ID = ?";
+            assertEquals("body s/b short", "short", readAll(session.query(StreamedDocument.class, streamedSql, small.getId()).get(0).getBody()));
+            assertEquals("body s/b short", "short", readAll(session.query(StreamedDocument.class, streamedSql, small.getId()).get(0).getBody()));
+            assertEquals("hits s/b 0", 0, cache.getHits());
+            assertEquals("cache s/b empty", 0, cache.size());
+        } finally {
+            session.setQueryCache(null);
+        }
+
+        // non ascii text is no longer mangled when read as a String
+        String sql = "SELECT Body FROM Documents WHERE ID = ?";
+        assertEquals("body s/b the same text", text, session.fetch(String.class, sql, document.getId()));
+        assertTrue("body s/b the same chars", Arrays.equals(text.toCharArray(), session.fetch(char[].class, sql, document.getId())));
+
+        ByteBuffer attachment = session.fetch(ByteBuffer.class, "SELECT Attachment FROM Documents WHERE ID = ?", document.getId());
+        assertEquals("attachment s/b 100000 bytes", bytes.length, attachment.remaining());
+        assertEquals("byte 1000 s/b the same", bytes[1000], attachment.get(1000));
+
+        // char[] and ByteBuffer parameters
+        assertEquals("s/b Gr\u00fc\u00dfe", "Gr\u00fc\u00dfe", session.fetch(String.class, "SELECT CAST(? AS VARCHAR(10))", (Object) "Gr\u00fc\u00dfe".toCharArray()));
+        ByteBuffer param = ByteBuffer.wrap(new byte[]{9, 1, 2, 3});
+        param.get();
+        assertTrue("s/b remaining bytes", Arrays.equals(new byte[]{1, 2, 3}, session.fetch(byte[].class, "SELECT CAST(? AS VARBINARY(10))", param)));
+        assertEquals("buffer position s/b unchanged", 1, param.position());
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        try (Reader in = reader) {
+            StringWriter writer = new StringWriter();
+            char[] buffer = new char[1000];
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                writer.write(buffer, 0, n);
+            }
+            return writer.toString();
+        }
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1000];
+            for (int n; (n = in.read(chunk)) != -1; ) {
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static long countTempFiles() throws IOException {
+        try (Stream<java.nio.file.Path> files = Files.list(java.nio.file.Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().startsWith(Session.TEMP_FILE_PREFIX)).count();
+        }
+    }
+
+    public void testInsertAll() throws SQLException {
+        List<MappedItem> items = new ArrayList<>(2500);
+        for (int j = 0; j < 2500; j++) {
+            MappedItem item = new MappedItem();
+            item.setDescription("Item " + j);
+            item.setPrice(new BigDecimal(j));
+            item.setActive(j % 2 == 0);
+            items.add(item);
+        }
+        assertEquals("inserted s/b 2500", 2500, session.insertAll(items, 1000));
+        assertEquals("rows s/b 2500", 2500L, (long) session.fetch(Long.class, "SELECT COUNT(*) FROM MappedItems"));
+
+        // H2 returns a key for each row of the batch
+        Set<Long> ids = new HashSet<>();
+        for (MappedItem item : items) {
+            ids.add(item.getId());
+        }
+        assertEquals("ids s/b assigned and unique", 2500, ids.size());
+        assertFalse("ids s/b assigned", ids.contains(0L));
+        assertEquals("item 1234 s/b read back", "Item 1234", session.fetch(String.class, "SELECT Description FROM MappedItems WHERE Item_ID = ?", items.get(1234).getId()));
+
+        // customers with and without a country (column with a default) have different insert statements
+        List<Customer> customers = new ArrayList<>();
+        for (int j = 0; j < 6; j++) {
+            Customer customer = new Customer();
+            customer.setCustomerId("C" + j);
+            customer.setCompanyName("Company " + j);
+            customer.setDateRegistered(new java.sql.Timestamp(System.currentTimeMillis()));
+            if (j % 2 == 0) {
+                customer.setCountry("CA");
+            }
+            customers.add(customer);
+        }
+        assertEquals("inserted s/b 6", 6, session.insertAll(customers));
+        assertEquals("C0 country s/b CA", "CA", session.fetch(String.class, "SELECT Country FROM Customers WHERE Customer_ID = ?", "C0"));
+        assertEquals("C1 country s/b US", "US", session.fetch(String.class, "SELECT Country FROM Customers WHERE Customer_ID = ?", "C1"));
+
+        // duplicate key fails the batch
+        Customer duplicate = new Customer();
+        duplicate.setCustomerId("C3");
+        duplicate.setCompanyName("Duplicate");
+        duplicate.setCountry("US");
+        duplicate.setDateRegistered(new java.sql.Timestamp(System.currentTimeMillis()));
+        Customer other = new Customer();
+        other.setCustomerId("C9");
+        other.setCompanyName("Other");
+        other.setCountry("US");
+        other.setDateRegistered(new java.sql.Timestamp(System.currentTimeMillis()));
+        try {
+            session.insertAll(Arrays.asList(duplicate, other), 10);
+            fail("s/b BatchInsertException");
+        } catch (BatchInsertException e) {
+            assertTrue("duplicate s/b failed " + e.getFailedObjects(), e.getFailedObjects().contains(duplicate));
+            assertEquals("failed + inserted s/b 2", 2, e.getFailedObjects().size() + e.getInsertedCount());
+        }
+
+        // auto commit off - earlier batches are not rolled back so the caller can commit them
+        con.setAutoCommit(false);
+        try {
+            List<Customer> batch = new ArrayList<>();
+            for (String id : new String[]{"C10", "C11", "C1"}) {
+                Customer customer = new Customer();
+                customer.setCustomerId(id);
+                customer.setCompanyName("Company " + id);
+                customer.setCountry("US");
+                customer.setDateRegistered(new java.sql.Timestamp(System.currentTimeMillis()));
+                batch.add(customer);
+            }
+            try {
+                session.insertAll(batch, 2);
+                fail("s/b BatchInsertException");
+            } catch (BatchInsertException e) {
+                assertEquals("inserted s/b 2", 2, e.getInsertedCount());
+                assertEquals("failed s/b C1", Collections.singletonList(batch.get(2)), e.getFailedObjects());
+            }
+            String sql = "SELECT COUNT(*) FROM Customers WHERE Customer_ID IN ('C10', 'C11')";
+            assertEquals("first batch s/b in the transaction", 2L, (long) session.fetch(Long.class, sql));
+            con.commit();
+            assertEquals("first batch s/b committed", 2L, (long) session.fetch(Long.class, sql));
+        } finally {
+            con.setAutoCommit(true);
+        }
+
+        try {
+            session.insertAll(items, 0);
+            fail("s/b PersismException");
+        } catch (PersismException e) {
+            assertEquals("batchSize should be 1 or more: 0", e.getMessage());
+        }
+    }
+
+    public void testCustomConverter() {
+        MappedItem item = new MappedItem();
+        item.setDescription("Saw");
+        item.setPrice(new BigDecimal("24.99"));
+        item.setActive(true);
+        session.insert(item);
+
+        Converters.register(BigDecimal.class, Money.class, Money::new);
+        Converters.register(Money.class, BigDecimal.class, Money::getAmount);
+        try {
+            List<PricedItem> items = session.query(PricedItem.class, "SELECT Description, Price FROM MappedItems WHERE Item_ID = ?", item.getId());
+            assertEquals("items s/b 1", 1, items.size());
+            assertEquals("price s/b 24.99", new Money(new BigDecimal("24.99")), items.get(0).getPrice());
+
+            assertEquals("money s/b converted to BigDecimal", new BigDecimal("3.50"), Converters.convert(new Money(new BigDecimal("3.50")), BigDecimal.class, "Price"));
+
+            // query parameters are converted with the registered converter
+            assertEquals("description s/b Saw", "Saw", session.fetch(String.class, "SELECT Description FROM MappedItems WHERE Price = ?", new Money(new BigDecimal("24.99"))));
+        } finally {
+            Converters.unregister(BigDecimal.class, Money.class);
+            Converters.unregister(Money.class, BigDecimal.class);
+        }
+        assertEquals("default conversion s/b restored", 3.5d, Converters.convert(new BigDecimal("3.50"), Double.class, "Price"));
+    }
+
     public void testInvoice() {
 
         Customer customer = new Customer();
@@ -577,6 +1730,47 @@ public final class TestH2 extends BaseTest {
 
 
 
+    // JDBC 3 drivers (jTDS) throw AbstractMethodError for the stream setters without a length
+    public void testStreamParametersWithoutLengthOverloads() throws Exception {
+        Map<Integer, Object> values = new HashMap<>();
+        Map<Integer, Integer> lengths = new HashMap<>();
+        PreparedStatement st = (PreparedStatement) java.lang.reflect.Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+            if (args != null && args.length == 2 && (method.getName().equals("setBinaryStream") || method.getName().equals("setCharacterStream"))) {
+                throw new AbstractMethodError(method.getName());
+            }
+            if (args != null && args.length == 3 && args[2] instanceof Integer) {
+                Object value;
+                if (args[1] instanceof Reader) {
+                    char[] chars = new char[(Integer) args[2]];
+                    assertEquals("chars read", chars.length, ((Reader) args[1]).read(chars));
+                    value = new String(chars);
+                } else {
+                    byte[] bytes = new byte[(Integer) args[2]];
+                    assertEquals("bytes read", bytes.length, ((InputStream) args[1]).read(bytes));
+                    value = new String(bytes, "UTF-8");
+                }
+                values.put((Integer) args[0], value);
+                lengths.put((Integer) args[0], (Integer) args[2]);
+            }
+            return null;
+        });
+
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < 3000; j++) {
+            sb.append("text ").append(j).append(' ');
+        }
+        String text = sb.toString();
+        InputStream unknownLength = new BufferedInputStream(new ByteArrayInputStream(text.getBytes("UTF-8")));
+
+        session.setParameters(st, new Object[]{new StringReader(text), unknownLength, new ByteArrayInputStream("abc".getBytes("UTF-8"))});
+
+        assertEquals("reader", text, values.get(1));
+        assertEquals("reader length", text.length(), (int) lengths.get(1));
+        assertEquals("input stream", text, values.get(2));
+        assertEquals("byte array input stream", "abc", values.get(3));
+        assertEquals("byte array input stream length", 3, (int) lengths.get(3));
+    }
+
     @Override
     public void testAllDates() {
         super.testAllDates();
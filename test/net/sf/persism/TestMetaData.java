@@ -1,5 +1,7 @@
 package net.sf.persism;
 
+import net.sf.persism.dao.ImmutableItem;
+
 import java.lang.reflect.InvocationTargetException;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -242,4 +244,76 @@ public final class TestMetaData extends BaseTest { // todo remove BaseTest for t
     public void testAllDates() {
         // comes from BaseTest - we don't need it here
     }
+
+    public void testPropertyIndex() {
+        PropertyIndex index = new PropertyIndex(MetaData.getPropertyInfo(ImmutableItem.class));
+
+        assertEquals("Item_ID s/b matched by Column annotation", "id", index.find("itemid", "Item_ID").propertyName);
+        assertEquals("ID s/b matched by name", "id", index.find("id", "ID").propertyName);
+        assertEquals("DESCRIPTION s/b matched by name", "description", index.find("description", "DESCRIPTION").propertyName);
+        assertNull("unknown column s/b null", index.find("nothing", "NOTHING"));
+
+        // folded keys s/b equal exactly when equalsIgnoreCase is true
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            String value = String.valueOf(c);
+            for (String other : new String[]{value.toUpperCase(), value.toLowerCase(), String.valueOf(Character.toUpperCase(c)), String.valueOf(Character.toLowerCase(c))}) {
+                assertEquals("fold of " + (int) c, value.equalsIgnoreCase(other), PropertyIndex.fold(value).equals(PropertyIndex.fold(other)));
+            }
+        }
+    }
+
+    public void testNamedSql() {
+        NamedSql namedSql = NamedSql.parse("SELECT * FROM Invoices WHERE Customer_ID = :customerId AND Paid = :paid OR Customer_ID = :customerId");
+        assertEquals("sql s/b positional", "SELECT * FROM Invoices WHERE Customer_ID = ? AND Paid = ? OR Customer_ID = ?", namedSql.sql);
+        assertEquals("names s/b in order", "[customerId, paid, customerId]", Arrays.toString(namedSql.names));
+
+        // quotes, comments and casts are left alone
+        namedSql = NamedSql.parse("SELECT ':a', \":b\", x::text FROM t -- :c\n/* :d */ WHERE y = :e_1");
+        assertEquals("sql s/b positional", "SELECT ':a', \":b\", x::text FROM t -- :c\n/* :d */ WHERE y = ?", namedSql.sql);
+        assertEquals("names s/b e_1", "[e_1]", Arrays.toString(namedSql.names));
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("e_1", 5);
+        assertEquals("bound s/b 5", "[5]", Arrays.toString(namedSql.bind(values, false)));
+        try {
+            namedSql.bind(new HashMap<>(), false);
+            fail("s/b PersismException - no value");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(":e_1"));
+        }
+
+        // read only and calculated properties (no setters) can be bound
+        namedSql = NamedSql.parse("SELECT * FROM Invoices WHERE Customer_ID = :customerId AND Paid = :paid AND Total > :total");
+        assertEquals("bound from getters", "[C1, true, 15.0]", Arrays.toString(namedSql.bind(new InvoiceFilter("C1", true, 10.0), false)));
+        try {
+            NamedSql.parse("SELECT * FROM Invoices WHERE Status = :status").bind(new InvoiceFilter("C1", true, 10.0), false);
+            fail("s/b PersismException - no property");
+        } catch (PersismException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(":status"));
+        }
+    }
+
+    public static final class InvoiceFilter {
+        private final String customerId;
+        private final boolean paid;
+        private final double amount;
+
+        public InvoiceFilter(String customerId, boolean paid, double amount) {
+            this.customerId = customerId;
+            this.paid = paid;
+            this.amount = amount;
+        }
+
+        public String getCustomerId() {
+            return customerId;
+        }
+
+        public boolean isPaid() {
+            return paid;
+        }
+
+        public double getTotal() {
+            return amount * 1.5;
+        }
+    }
 }
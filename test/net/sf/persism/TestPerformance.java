@@ -0,0 +1,214 @@
+package net.sf.persism;
+
+import junit.framework.TestCase;
+import net.sf.persism.dao.Customer;
+import net.sf.persism.dao.Regions;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.Date;
+
+/**
+ * Simple before/after benchmarks using an H2 in-memory database. Results are logged - nothing is asserted
+ * about timings since they depend on the machine running the tests.
+ */
+public final class TestPerformance extends TestCase {
+
+    private static final Log log = Log.getLogger(TestPerformance.class);
+
+    private static final int ROWS = 20000;
+    private static final int RUNS = 5;
+
+    private Connection con;
+    private Session session;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Class.forName("org.h2.Driver");
+        con = DriverManager.getConnection("jdbc:h2:mem:perf;DB_CLOSE_DELAY=-1", "sa", "");
+
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS Customers");
+            st.execute("CREATE TABLE Customers ( " +
+                    " Customer_ID varchar(10) PRIMARY KEY NOT NULL, " +
+                    " Company_Name VARCHAR(30) NULL, " +
+                    " Contact_Name VARCHAR(30) NULL, " +
+                    " Contact_Title VARCHAR(10) NULL, " +
+                    " Address VARCHAR(40) NULL, " +
+                    " City VARCHAR(30) NULL, " +
+                    " Region ENUM('North', 'South', 'East', 'West'), " +
+                    " Postal_Code VARCHAR(10) NULL, " +
+                    " Country VARCHAR(2) NOT NULL DEFAULT 'US', " +
+                    " Phone VARCHAR(30) NULL, " +
+                    " Fax VARCHAR(30) NULL, " +
+                    " Status CHAR(1) NULL, " +
+                    " Date_Registered datetime default current_timestamp, " +
+                    " Date_Of_Last_Order DATE NULL, " +
+                    " TestLocalDate date NULL, " +
+                    " TestLocalDateTime datetime NULL" +
+                    ") ");
+        }
+
+        try (PreparedStatement st = con.prepareStatement("INSERT INTO Customers (Customer_ID, Company_Name, Contact_Name, Contact_Title, Address, City, Region, Postal_Code, Country, Phone, Fax, Status, Date_Registered, Date_Of_Last_Order, TestLocalDate, TestLocalDateTime) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int j = 0; j < ROWS; j++) {
+                st.setString(1, "C" + j);
+                st.setString(2, "Company " + j);
+                st.setString(3, "Contact " + j);
+                st.setString(4, "Title");
+                st.setString(5, j + " Sesame Street");
+                st.setString(6, "City");
+                st.setString(7, Regions.values()[j % 4].name());
+                st.setString(8, "H0H0H0");
+                st.setString(9, "CA");
+                st.setString(10, "555-1234");
+                st.setString(11, "555-4321");
+                st.setString(12, "" + (j % 10));
+                st.setTimestamp(13, new Timestamp(System.currentTimeMillis()));
+                st.setDate(14, java.sql.Date.valueOf(LocalDate.now()));
+                st.setDate(15, java.sql.Date.valueOf(LocalDate.now()));
+                st.setTimestamp(16, Timestamp.valueOf(LocalDateTime.now()));
+                st.addBatch();
+            }
+            st.executeBatch();
+        }
+
+        session = new Session(con);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (con != null) {
+            try (Statement st = con.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS Customers");
+            }
+        }
+        session.close();
+        super.tearDown();
+    }
+
+    public void testQueryRowsPerSecond() {
+        long best = Long.MAX_VALUE;
+        int size = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            List<Customer> list = session.query(Customer.class, "SELECT * FROM Customers");
+            best = Math.min(best, System.nanoTime() - start);
+            size = list.size();
+        }
+        assertEquals(ROWS, size);
+        log.warn("query: " + rowsPerSecond(ROWS, best) + " rows/sec (" + ROWS + " rows, best of " + RUNS + ")");
+    }
+
+    public void testAccessorsVersusReflection() throws Exception {
+        List<Customer> list = session.query(Customer.class, "SELECT * FROM Customers");
+        Collection<PropertyInfo> properties = MetaData.getPropertyInfo(Customer.class);
+
+        long reflection = Long.MAX_VALUE;
+        long accessors = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (Customer customer : list) {
+                for (PropertyInfo propertyInfo : properties) {
+                    propertyInfo.setter.invoke(customer, propertyInfo.getter.invoke(customer));
+                }
+            }
+            reflection = Math.min(reflection, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (Customer customer : list) {
+                for (PropertyInfo propertyInfo : properties) {
+                    propertyInfo.setValue(customer, propertyInfo.getValue(customer));
+                }
+            }
+            accessors = Math.min(accessors, System.nanoTime() - start);
+        }
+        log.warn("get+set all properties: Method.invoke " + rowsPerSecond(list.size(), reflection) + " rows/sec, accessors " + rowsPerSecond(list.size(), accessors) + " rows/sec");
+    }
+
+    // Each source type Persism knows about converted to each target type. Sources which only log warnings
+    // (Clob, Blob, Instant etc) are left out. Pairs which fail for the sample value are counted but not timed.
+    public void testConversionMatrix() {
+        List<Object> values = Arrays.asList(true, (byte) 1, (short) 1, 1, 1L, 1f, 1d, new BigDecimal("1"), new BigInteger("1"),
+                "1", 'c', new Date(), new java.sql.Date(System.currentTimeMillis()), new Time(System.currentTimeMillis()),
+                LocalTime.now(), new Timestamp(System.currentTimeMillis()), LocalDate.now(), LocalDateTime.now(),
+                new byte[16], Regions.North, UUID.randomUUID(), new Object());
+
+        List<Object> sources = new ArrayList<>();
+        List<Class<?>> targets = new ArrayList<>();
+        int failed = 0;
+        for (Object value : values) {
+            for (Types target : Types.values()) {
+                try {
+                    Converters.convert(value, target.getJavaType(), "test");
+                    sources.add(value);
+                    targets.add(target.getJavaType());
+                } catch (RuntimeException e) {
+                    failed++;
+                }
+            }
+        }
+
+        int size = sources.size();
+        int loops = 200;
+        long lookup = Long.MAX_VALUE;
+        long direct = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (int k = 0; k < loops; k++) {
+                for (int j = 0; j < size; j++) {
+                    Converters.convert(sources.get(j), targets.get(j), "test");
+                }
+            }
+            lookup = Math.min(lookup, System.nanoTime() - start);
+
+            Converters.Conversion[] conversions = new Converters.Conversion[size];
+            for (int j = 0; j < size; j++) {
+                conversions[j] = Converters.get(sources.get(j).getClass(), targets.get(j));
+            }
+            start = System.nanoTime();
+            for (int k = 0; k < loops; k++) {
+                for (int j = 0; j < size; j++) {
+                    conversions[j].convert(sources.get(j), "test");
+                }
+            }
+            direct = Math.min(direct, System.nanoTime() - start);
+        }
+        assertTrue("some pairs s/b converted", size > 0);
+        log.warn("conversion matrix: " + size + " pairs (" + failed + " not convertible) lookup+convert " + (lookup / ((long) size * loops)) + " ns/op, pre-resolved " + (direct / ((long) size * loops)) + " ns/op");
+    }
+
+    public void testParseDates() throws Exception {
+        String[] values = new String[ROWS];
+        for (int j = 0; j < ROWS; j++) {
+            values[j] = String.format("%04d-%02d-%02d %02d:%02d:%02d", 2000 + j % 20, 1 + j % 12, 1 + j % 28, j % 24, j % 60, j % 60);
+        }
+
+        long simpleDateFormat = Long.MAX_VALUE;
+        long dateTimes = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (String value : values) {
+                new java.text.SimpleDateFormat("yyyy-MM-dd hh:mm:ss").parse(value);
+            }
+            simpleDateFormat = Math.min(simpleDateFormat, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (String value : values) {
+                DateTimes.toDate(DateTimes.parseDateTime(value));
+            }
+            dateTimes = Math.min(dateTimes, System.nanoTime() - start);
+        }
+        log.warn("parse dates: SimpleDateFormat " + rowsPerSecond(ROWS, simpleDateFormat) + " values/sec, DateTimes " + rowsPerSecond(ROWS, dateTimes) + " values/sec");
+    }
+
+    private static long rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
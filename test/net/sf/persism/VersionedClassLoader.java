@@ -0,0 +1,69 @@
+package net.sf.persism;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Loads the persism classes itself (same runtime package) taking the Java 9 version (src9 - META-INF/versions/9)
+ * where there is one. Tests run from the class folders where the JVM always loads the base version.
+ * Other classes (tests, JDK, logging libraries) come from the parent.
+ */
+final class VersionedClassLoader extends ClassLoader {
+
+    static final String VERSIONED = "META-INF/versions/9/";
+
+    private final String mainRoot;
+
+    VersionedClassLoader(ClassLoader parent) {
+        super(parent);
+        String session = parent.getResource("net/sf/persism/Session.class").toString();
+        mainRoot = session.substring(0, session.length() - "net/sf/persism/Session.class".length());
+    }
+
+    // true if the Java 9 version of the class was compiled and is on the class path
+    static boolean hasVersioned(Class<?> test, String className) {
+        return test.getClassLoader().getResource(VERSIONED + className.replace('.', '/') + ".class") != null;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith("net.sf.persism.")) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                String path = name.replace('.', '/') + ".class";
+                URL url = getParent().getResource(VERSIONED + path);
+                if (url == null) {
+                    url = getParent().getResource(path);
+                }
+                if (url == null || !url.toString().startsWith(mainRoot)) {
+                    // test classes
+                    return super.loadClass(name, resolve);
+                }
+                byte[] bytes = read(url);
+                c = defineClass(name, bytes, 0, bytes.length);
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    private static byte[] read(URL url) throws ClassNotFoundException {
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(url.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.Column;
+import net.sf.persism.annotations.Table;
+
+import java.beans.ConstructorProperties;
+import java.math.BigDecimal;
+
+/**
+ * Mutable data object which also has a ConstructorProperties constructor (like Lombok @Data with
+ * @AllArgsConstructor). Persism uses the default constructor and setters. Uses the same table as MappedItem.
+ */
+@Table("MAPPEDITEMS")
+public final class BeanItem {
+
+    @Column(name = "Item_ID", primary = true, autoIncrement = true)
+    private long id;
+    private String description;
+    private BigDecimal price;
+    private boolean active;
+
+    public BeanItem() {
+    }
+
+    @ConstructorProperties({"id", "description", "price", "active"})
+    public BeanItem(long id, String description, BigDecimal price, boolean active) {
+        this.id = id;
+        this.description = description;
+        this.price = price;
+        this.active = active;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
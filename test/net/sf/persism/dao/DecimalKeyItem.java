@@ -0,0 +1,31 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Table with a NUMERIC primary key with a scale - see TestH2 testParallelQueryDecimalKey.
+ */
+@Table("DECIMAL_KEYS")
+public final class DecimalKeyItem {
+
+    private BigDecimal id;
+    private String description;
+
+    public BigDecimal getId() {
+        return id;
+    }
+
+    public void setId(BigDecimal id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
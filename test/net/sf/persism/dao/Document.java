@@ -0,0 +1,51 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.LazyValue;
+import net.sf.persism.annotations.Lazy;
+
+/**
+ * Used to test Lazy columns.
+ */
+public final class Document {
+
+    private long id;
+    private String title;
+
+    @Lazy
+    private LazyValue<String> body;
+
+    @Lazy
+    private LazyValue<byte[]> attachment;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LazyValue<String> getBody() {
+        return body;
+    }
+
+    public void setBody(LazyValue<String> body) {
+        this.body = body;
+    }
+
+    public LazyValue<byte[]> getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(LazyValue<byte[]> attachment) {
+        this.attachment = attachment;
+    }
+}
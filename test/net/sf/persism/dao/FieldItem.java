@@ -0,0 +1,65 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.PersistableObject;
+import net.sf.persism.annotations.Column;
+import net.sf.persism.annotations.FieldAccess;
+import net.sf.persism.annotations.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Data object using field access. The getters and setters count their calls so tests can check they are not used.
+ * Uses the same table as MappedItem.
+ */
+@FieldAccess
+@Table("MAPPEDITEMS")
+public final class FieldItem extends PersistableObject<FieldItem> {
+
+    public static int accessorCalls;
+
+    @Column(name = "Item_ID", primary = true, autoIncrement = true)
+    private long id;
+    private String description;
+    private BigDecimal price;
+    private boolean active;
+
+    public long getId() {
+        accessorCalls++;
+        return id;
+    }
+
+    public void setId(long id) {
+        accessorCalls++;
+        this.id = id;
+    }
+
+    public String getDescription() {
+        accessorCalls++;
+        return description;
+    }
+
+    public void setDescription(String description) {
+        accessorCalls++;
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        accessorCalls++;
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        accessorCalls++;
+        this.price = price;
+    }
+
+    public boolean isActive() {
+        accessorCalls++;
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        accessorCalls++;
+        this.active = active;
+    }
+}
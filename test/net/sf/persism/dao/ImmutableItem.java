@@ -0,0 +1,49 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.Column;
+import net.sf.persism.annotations.Table;
+
+import java.beans.ConstructorProperties;
+import java.math.BigDecimal;
+
+/**
+ * Immutable data object created with its constructor. Uses the same table as MappedItem.
+ */
+@Table("MAPPEDITEMS")
+public final class ImmutableItem {
+
+    @Column(name = "Item_ID", primary = true, autoIncrement = true)
+    private final long id;
+    private final String description;
+    private final BigDecimal price;
+    private final boolean active;
+
+    @ConstructorProperties({"id", "description", "price", "active"})
+    public ImmutableItem(long id, String description, BigDecimal price, boolean active) {
+        this.id = id;
+        this.description = description;
+        this.price = price;
+        this.active = active;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    // calculated - not a column
+    public String getLabel() {
+        return description + " " + price;
+    }
+}
@@ -0,0 +1,42 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.LazyValue;
+import net.sf.persism.annotations.Lazy;
+import net.sf.persism.annotations.Table;
+
+/**
+ * Used to test that a generated mapper is not used for a class with Lazy properties. See MappedDocument_PersismMapper.
+ */
+@Table("DOCUMENTS")
+public final class MappedDocument {
+
+    private long id;
+    private String title;
+
+    @Lazy
+    private LazyValue<String> body;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LazyValue<String> getBody() {
+        return body;
+    }
+
+    public void setBody(LazyValue<String> body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,105 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.PersismException;
+import net.sf.persism.annotations.Column;
+
+/**
+ * Generated by persism-processor for net.sf.persism.dao.MappedDocument. Do not edit.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class MappedDocument_PersismMapper implements net.sf.persism.GeneratedMapper<net.sf.persism.dao.MappedDocument> {
+
+    private static final String[] NAMES = {"body", "id", "title"};
+
+    private static final Class<?>[] TYPES = {net.sf.persism.LazyValue.class, long.class, java.lang.String.class};
+
+    @Override
+    public net.sf.persism.dao.MappedDocument newInstance() {
+        return new net.sf.persism.dao.MappedDocument();
+    }
+
+    @Override
+    public String[] propertyNames() {
+        return NAMES.clone();
+    }
+
+    @Override
+    public Class<?>[] propertyTypes() {
+        return TYPES.clone();
+    }
+
+    @Override
+    public Column[] columns() {
+        return new Column[]{null, null, null};
+    }
+
+    @Override
+    public Object get(net.sf.persism.dao.MappedDocument object, int property) {
+        switch (property) {
+            case 0:
+                return object.getBody();
+            case 1:
+                return object.getId();
+            case 2:
+                return object.getTitle();
+            default:
+                throw new IndexOutOfBoundsException("property: " + property);
+        }
+    }
+
+    @Override
+    public void set(net.sf.persism.dao.MappedDocument object, int property, Object value) {
+        switch (property) {
+            case 0:
+                object.setBody((net.sf.persism.LazyValue) value);
+                return;
+            case 1:
+                object.setId(((Number) value).longValue());
+                return;
+            case 2:
+                object.setTitle((java.lang.String) value);
+                return;
+            default:
+                throw new IndexOutOfBoundsException("property: " + property);
+        }
+    }
+
+    private static final class ColumnValues implements Column {
+        private final String name;
+        private final boolean autoIncrement;
+        private final boolean primary;
+        private final boolean hasDefault;
+
+        ColumnValues(String name, boolean autoIncrement, boolean primary, boolean hasDefault) {
+            this.name = name;
+            this.autoIncrement = autoIncrement;
+            this.primary = primary;
+            this.hasDefault = hasDefault;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean autoIncrement() {
+            return autoIncrement;
+        }
+
+        @Override
+        public boolean primary() {
+            return primary;
+        }
+
+        @Override
+        public boolean hasDefault() {
+            return hasDefault;
+        }
+
+        @Override
+        public Class<? extends java.lang.annotation.Annotation> annotationType() {
+            return Column.class;
+        }
+    }
+}
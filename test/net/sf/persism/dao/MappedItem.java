@@ -0,0 +1,76 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.Column;
+import net.sf.persism.annotations.Mapped;
+import net.sf.persism.annotations.NotColumn;
+
+import java.math.BigDecimal;
+
+/**
+ * Used to test mappers generated by persism-processor. See MappedItem_PersismMapper.
+ */
+@Mapped
+public final class MappedItem {
+
+    @Column(name = "Item_ID", primary = true, autoIncrement = true)
+    private long id;
+
+    private String description;
+
+    private BigDecimal price;
+
+    private boolean active;
+
+    @NotColumn
+    private String notes;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedItem{" +
+                "id=" + id +
+                ", description='" + description + '\'' +
+                ", price=" + price +
+                ", active=" + active +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.PersismException;
+import net.sf.persism.annotations.Column;
+
+/**
+ * Generated by persism-processor for net.sf.persism.dao.MappedItem. Do not edit.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class MappedItem_PersismMapper implements net.sf.persism.GeneratedMapper<net.sf.persism.dao.MappedItem> {
+
+    private static final String[] NAMES = {"active", "description", "id", "price"};
+
+    private static final Class<?>[] TYPES = {boolean.class, java.lang.String.class, long.class, java.math.BigDecimal.class};
+
+    @Override
+    public net.sf.persism.dao.MappedItem newInstance() {
+        return new net.sf.persism.dao.MappedItem();
+    }
+
+    @Override
+    public String[] propertyNames() {
+        return NAMES.clone();
+    }
+
+    @Override
+    public Class<?>[] propertyTypes() {
+        return TYPES.clone();
+    }
+
+    @Override
+    public Column[] columns() {
+        return new Column[]{null, null, new ColumnValues("Item_ID", true, true, false), null};
+    }
+
+    @Override
+    public Object get(net.sf.persism.dao.MappedItem object, int property) {
+        switch (property) {
+            case 0:
+                return object.isActive();
+            case 1:
+                return object.getDescription();
+            case 2:
+                return object.getId();
+            case 3:
+                return object.getPrice();
+            default:
+                throw new IndexOutOfBoundsException("property: " + property);
+        }
+    }
+
+    @Override
+    public void set(net.sf.persism.dao.MappedItem object, int property, Object value) {
+        switch (property) {
+            case 0:
+                object.setActive((Boolean) value);
+                return;
+            case 1:
+                object.setDescription((java.lang.String) value);
+                return;
+            case 2:
+                object.setId(((Number) value).longValue());
+                return;
+            case 3:
+                object.setPrice((java.math.BigDecimal) value);
+                return;
+            default:
+                throw new IndexOutOfBoundsException("property: " + property);
+        }
+    }
+
+    private static final class ColumnValues implements Column {
+        private final String name;
+        private final boolean autoIncrement;
+        private final boolean primary;
+        private final boolean hasDefault;
+
+        ColumnValues(String name, boolean autoIncrement, boolean primary, boolean hasDefault) {
+            this.name = name;
+            this.autoIncrement = autoIncrement;
+            this.primary = primary;
+            this.hasDefault = hasDefault;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean autoIncrement() {
+            return autoIncrement;
+        }
+
+        @Override
+        public boolean primary() {
+            return primary;
+        }
+
+        @Override
+        public boolean hasDefault() {
+            return hasDefault;
+        }
+
+        @Override
+        public Class<? extends java.lang.annotation.Annotation> annotationType() {
+            return Column.class;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package net.sf.persism.dao;
+
+import java.math.BigDecimal;
+
+/**
+ * Custom value type used to test user registered converters.
+ */
+public final class Money {
+
+    private final BigDecimal amount;
+
+    public Money(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && amount.compareTo(((Money) o).amount) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return amount.stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Money{" + amount + '}';
+    }
+}
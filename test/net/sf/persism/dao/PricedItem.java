@@ -0,0 +1,29 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.NotTable;
+
+/**
+ * Query result with a custom Money type - see TestH2 testCustomConverter.
+ */
+@NotTable
+public final class PricedItem {
+
+    private String description;
+    private Money price;
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public void setPrice(Money price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,50 @@
+package net.sf.persism.dao;
+
+import net.sf.persism.annotations.Table;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Used to test streamed CLOB and BLOB columns. Uses the same table as Document.
+ */
+@Table("DOCUMENTS")
+public final class StreamedDocument {
+
+    private long id;
+    private String title;
+    private Reader body;
+    private InputStream attachment;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Reader getBody() {
+        return body;
+    }
+
+    public void setBody(Reader body) {
+        this.body = body;
+    }
+
+    public InputStream getAttachment() {
+        return attachment;
+    }
+
+    public void setAttachment(InputStream attachment) {
+        this.attachment = attachment;
+    }
+}